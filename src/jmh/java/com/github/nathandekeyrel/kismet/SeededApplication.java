@@ -0,0 +1,46 @@
+package com.github.nathandekeyrel.kismet;
+
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SeededApplication {
+
+    // H2 checks an IN list linearly per row, so a single query for every seeded id never finishes at 100k users
+    private static final int USER_PAGE_SIZE = 1_000;
+
+    private SeededApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(int users, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;" +
+                "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--kismet.dataset.users=" + users));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(KismetApplication.class).run(args.toArray(String[]::new));
+    }
+
+    public static List<User> users(ConfigurableApplicationContext context, int count) {
+        UserService userService = context.getBean(UserService.class);
+        List<User> users = new ArrayList<>(count);
+        long afterId = 0L;
+        while (users.size() < count) {
+            List<Long> ids = userService.getUserIdsAfter(afterId, Math.min(USER_PAGE_SIZE, count - users.size()));
+            if (ids.isEmpty()) {
+                break;
+            }
+            users.addAll(userService.getUsersByIds(ids));
+            afterId = ids.get(ids.size() - 1);
+        }
+        return users;
+    }
+}
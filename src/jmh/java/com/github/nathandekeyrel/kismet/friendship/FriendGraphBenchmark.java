@@ -0,0 +1,85 @@
+package com.github.nathandekeyrel.kismet.friendship;
+
+import com.github.nathandekeyrel.kismet.dataset.SyntheticDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FriendGraphBenchmark {
+
+    @Param({"100000"})
+    private int users;
+
+    @Param({"256", "2147483647"})
+    private int parallelThreshold;
+
+    private FriendGraph friendGraph;
+    private long hubUserId;
+
+    @Setup(Level.Trial)
+    public void build() {
+        friendGraph = new FriendGraph(null, parallelThreshold, 0);
+        Random random = new Random(42L);
+        for (int user = 1; user <= users; user++) {
+            int friends = SyntheticDataGenerator.powerLaw(random, 4, 1.8, 5_000);
+            for (int f = 0; f < friends; f++) {
+                double skewed = random.nextDouble();
+                int friend = 1 + (int) (users * skewed * skewed * skewed);
+                if (friend != user) {
+                    friendGraph.addFriendship((long) user, (long) friend);
+                }
+            }
+        }
+        hubUserId = 1L;
+        for (long user = 1; user <= users; user++) {
+            if (friendGraph.getFriendIds(user).size() > friendGraph.getFriendIds(hubUserId).size()) {
+                hubUserId = user;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        friendGraph.shutdown();
+    }
+
+    @Benchmark
+    public List<FriendGraph.Suggestion> suggestForTypicalUser() {
+        return friendGraph.suggest(randomUser(), 10);
+    }
+
+    @Benchmark
+    public List<FriendGraph.Suggestion> suggestForHub() {
+        return friendGraph.suggest(hubUserId, 10);
+    }
+
+    @Benchmark
+    public int countMutualFriends() {
+        return friendGraph.countMutualFriends(randomUser(), randomUser());
+    }
+
+    private long randomUser() {
+        return 1 + ThreadLocalRandom.current().nextInt(users);
+    }
+}
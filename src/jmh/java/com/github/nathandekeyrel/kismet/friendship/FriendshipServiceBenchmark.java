@@ -0,0 +1,72 @@
+package com.github.nathandekeyrel.kismet.friendship;
+
+import com.github.nathandekeyrel.kismet.SeededApplication;
+import com.github.nathandekeyrel.kismet.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FriendshipServiceBenchmark {
+
+    private static final String[] QUERIES = {"Alex", "Jordan Smi", "Morgan Garcia1", "Riley", "Quinn Lopez"};
+
+    @Param({"10000"})
+    private int users;
+
+    private ConfigurableApplicationContext context;
+    private FriendshipService friendshipService;
+    private List<User> allUsers;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededApplication.start(users);
+        friendshipService = context.getBean(FriendshipService.class);
+        allUsers = SeededApplication.users(context, users);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<User> searchUsers() {
+        String query = QUERIES[ThreadLocalRandom.current().nextInt(QUERIES.length)];
+        return friendshipService.searchUsers(query, randomUser(), 0);
+    }
+
+    @Benchmark
+    public List<User> getFriends() {
+        return friendshipService.getFriends(randomUser());
+    }
+
+    @Benchmark
+    public List<FriendSuggestion> getSuggestions() {
+        return friendshipService.getSuggestions(randomUser());
+    }
+
+    private User randomUser() {
+        return allUsers.get(ThreadLocalRandom.current().nextInt(allUsers.size()));
+    }
+}
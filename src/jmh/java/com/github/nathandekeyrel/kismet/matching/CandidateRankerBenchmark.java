@@ -0,0 +1,68 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.nathandekeyrel.kismet.dataset.SyntheticDataGenerator;
+import com.github.nathandekeyrel.kismet.profile.PromptType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandidateRankerBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    private int candidates;
+
+    private CompatibilityCandidateRanker ranker;
+    private List<Long> candidateIds;
+
+    @Setup(Level.Trial)
+    public void build() {
+        ProfileFeatureIndex index = new ProfileFeatureIndex(null, 10_000);
+        Random random = new Random(42L);
+        PromptType[] promptTypes = PromptType.values();
+        for (long userId = 1; userId <= candidates + 1; userId++) {
+            Map<PromptType, String> answers = new EnumMap<>(PromptType.class);
+            for (int a = 0; a < 3; a++) {
+                answers.put(promptTypes[random.nextInt(promptTypes.length)], SyntheticDataGenerator.sentence(random, 8));
+            }
+            index.put(userId, SyntheticDataGenerator.sentence(random, 12), answers, System.currentTimeMillis());
+        }
+        ranker = new CompatibilityCandidateRanker(index, 512, 0);
+        candidateIds = new ArrayList<>(candidates);
+        for (long userId = 2; userId <= candidates + 1; userId++) {
+            candidateIds.add(userId);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        ranker.shutdown();
+    }
+
+    @Benchmark
+    public List<Long> rank() {
+        return ranker.rank(1L, candidateIds);
+    }
+}
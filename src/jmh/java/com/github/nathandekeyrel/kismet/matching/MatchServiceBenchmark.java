@@ -0,0 +1,129 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.nathandekeyrel.kismet.SeededApplication;
+import com.github.nathandekeyrel.kismet.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchServiceBenchmark {
+
+    // /home is measured for a population of returning users whose decks are already filled; a user's very first
+    // visit takes the cold fallback query instead
+    private static final int ACTIVE_USERS = 1_000;
+    private static final long DECK_WARMUP_MILLIS = 600_000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int users;
+
+    @Param({"false", "true"})
+    private boolean writeBehind;
+
+    private ConfigurableApplicationContext context;
+    private MatchService matchService;
+    private List<User> allUsers;
+    private List<User> activeUsers;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededApplication.start(users, "--kismet.swipes.write-behind.enabled=" + writeBehind);
+        matchService = context.getBean(MatchService.class);
+        allUsers = SeededApplication.users(context, users);
+        List<User> shuffled = new ArrayList<>(allUsers);
+        Collections.shuffle(shuffled, new Random(42));
+        activeUsers = shuffled.subList(0, Math.min(ACTIVE_USERS, shuffled.size()));
+        warmDecks(context.getBean(CandidateDeck.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public void likeWithoutMatch() {
+        matchService.recordAction(randomUser(), randomUser(), ActionType.LIKE);
+    }
+
+    @Benchmark
+    public void pass() {
+        matchService.recordAction(randomUser(), randomUser(), ActionType.PASS);
+    }
+
+    @Benchmark
+    public boolean likeCompletingMatch(PendingLike pendingLike) {
+        return matchService.recordAction(pendingLike.target, pendingLike.liker, ActionType.LIKE);
+    }
+
+    @Benchmark
+    public Optional<CandidateCard> findPotentialMatch() {
+        return matchService.findPotentialMatch(activeUser());
+    }
+
+    @Benchmark
+    public MatchPage getMatches() {
+        return matchService.getMatches(randomUser(), null, null);
+    }
+
+    private void warmDecks(CandidateDeck candidateDeck) {
+        long deadline = System.currentTimeMillis() + DECK_WARMUP_MILLIS;
+        List<User> cold = new ArrayList<>(activeUsers);
+        while (!cold.isEmpty() && System.currentTimeMillis() < deadline) {
+            cold.removeIf(user -> candidateDeck.peek(user.getId()).isPresent()
+                    || candidateDeck.isExhausted(user.getId()));
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        if (!cold.isEmpty()) {
+            throw new IllegalStateException(cold.size() + " candidate decks were still empty after warm-up");
+        }
+    }
+
+    private User activeUser() {
+        return activeUsers.get(ThreadLocalRandom.current().nextInt(activeUsers.size()));
+    }
+
+    private User randomUser() {
+        return allUsers.get(ThreadLocalRandom.current().nextInt(allUsers.size()));
+    }
+
+    @State(Scope.Thread)
+    public static class PendingLike {
+        private User liker;
+        private User target;
+
+        @Setup(Level.Invocation)
+        public void like(MatchServiceBenchmark benchmark) {
+            liker = benchmark.randomUser();
+            do {
+                target = benchmark.randomUser();
+            } while (target == liker);
+            benchmark.matchService.recordAction(liker, target, ActionType.LIKE);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.nathandekeyrel.kismet.profile;
+
+import com.github.nathandekeyrel.kismet.SeededApplication;
+import com.github.nathandekeyrel.kismet.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfileServiceBenchmark {
+
+    @Param({"10000"})
+    private int users;
+
+    @Param({"false", "true"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private ProfileService profileService;
+    private ProfileCardRenderer profileCardRenderer;
+    private ITemplateEngine templateEngine;
+    private List<User> allUsers;
+    private Profile cardProfile;
+    private List<ProfileAnswer> cardAnswers;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededApplication.start(users, "--kismet.l2-cache.enabled=" + secondLevelCache);
+        profileService = context.getBean(ProfileService.class);
+        profileCardRenderer = context.getBean(ProfileCardRenderer.class);
+        templateEngine = context.getBean(ITemplateEngine.class);
+        allUsers = SeededApplication.users(context, users);
+        cardProfile = profileService.getByUser(allUsers.getFirst());
+        cardAnswers = profileService.getAnswersByProfile(cardProfile);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProfileEditForm readProfile() {
+        return profileService.buildEditForm(profileService.getByUser(randomUser()));
+    }
+
+    @Benchmark
+    public void updateOneAnswer() {
+        Profile profile = profileService.getByUser(randomUser());
+        ProfileEditForm form = profileService.buildEditForm(profile);
+        Map<PromptType, String> answers = new EnumMap<>(PromptType.class);
+        answers.putAll(form.getAnswers());
+        answers.put(PromptType.PERFECT_DAY, "Benchmark answer " + ThreadLocalRandom.current().nextInt());
+        profileService.updateProfile(profile, form.getBio(), answers);
+    }
+
+    @Benchmark
+    public String renderCardUncached() {
+        Context context = new Context(Locale.getDefault(), Map.of("bio", cardProfile.getBio(),
+                "answers", cardAnswers));
+        return templateEngine.process("fragments/profile-card", Set.of(ProfileCardRenderer.OWN), context);
+    }
+
+    @Benchmark
+    public String renderCardCached() {
+        return profileCardRenderer.render(ProfileCardRenderer.OWN, cardProfile.getId(), cardProfile.getVersion(),
+                cardProfile.getBio(), cardAnswers);
+    }
+
+    private User randomUser() {
+        return allUsers.get(ThreadLocalRandom.current().nextInt(allUsers.size()));
+    }
+}
@@ -0,0 +1,409 @@
+package com.github.nathandekeyrel.kismet.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.nathandekeyrel.kismet.KismetApplication;
+import com.github.nathandekeyrel.kismet.dataset.SyntheticDataGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LoadDriver {
+
+    private static final String[] SEARCH_TERMS = {"Alex", "Sam", "Jordan", "Taylor", "Morgan", "Casey", "Riley",
+            "Smith", "Jones", "Garcia", "Miller", "Wilson"};
+    private static final String DEFAULT_MIX =
+            "home=20,like=25,pass=25,matches=8,search=8,profile=6,profile-edit=4,profile-save=2,login=2";
+
+    private final Map<String, String> options;
+    private final List<String> applicationArgs;
+    private final Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LatencyHistogram> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final AtomicInteger failedStreams = new AtomicInteger();
+    private final LatencyHistogram homeDuringBurst = new LatencyHistogram();
+    private final LongAdder homeErrorsDuringBurst = new LongAdder();
+    private final int users;
+    private final String password;
+    private final HttpClient client;
+
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+    private volatile boolean loginBurst;
+
+    private LoadDriver(Map<String, String> options, List<String> applicationArgs) {
+        this.options = options;
+        this.applicationArgs = applicationArgs;
+        this.users = Integer.parseInt(option("users", "10000"));
+        this.password = option("password", "synthetic");
+        for (String entry : option("mix", DEFAULT_MIX).split(",")) {
+            String[] parts = entry.trim().split("=");
+            mix.put(Endpoint.of(parts[0]), Integer.parseInt(parts[1]));
+        }
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new LatencyHistogram());
+            errors.put(endpoint, new LongAdder());
+        }
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            if (!option.contains("=")) {
+                throw new IllegalArgumentException("Expected name=value but got " + arg);
+            }
+            if (option.startsWith("spring.") || option.startsWith("kismet.") || option.startsWith("server.")
+                || option.startsWith("logging.")) {
+                applicationArgs.add("--" + option);
+            } else {
+                options.put(option.substring(0, option.indexOf('=')), option.substring(option.indexOf('=') + 1));
+            }
+        }
+        new LoadDriver(options, applicationArgs).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        ConfigurableApplicationContext application = null;
+        URI target;
+        if (options.containsKey("target")) {
+            target = URI.create(options.get("target"));
+        } else {
+            application = startEmbedded();
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            target = URI.create("http://localhost:" + port);
+        }
+
+        int concurrency = Integer.parseInt(option("concurrency", "100"));
+        Duration warmup = Duration.parse(option("warmup", "PT10S"));
+        Duration duration = Duration.parse(option("duration", "PT60S"));
+        Duration thinkTime = Duration.parse(option("think-time", "PT0S"));
+        int streams = Integer.parseInt(option("streams", "0"));
+        int streamsPerSession = Integer.parseInt(option("streams-per-session", "5"));
+        int burstUsers = Integer.parseInt(option("login-burst", "0"));
+        System.out.printf("Driving %s with %d virtual users (%s warmup, %s measured), %d idle streams%n",
+                target, concurrency, warmup, duration, streams);
+        if (burstUsers > 0) {
+            System.out.printf("A burst of %d users does nothing but log in for the second half of the window%n",
+                    burstUsers);
+        }
+
+        try (ExecutorService streamExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService workerExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int s = 0; s < streams; s += streamsPerSession) {
+                int first = s;
+                int count = Math.min(streamsPerSession, streams - s);
+                streamExecutor.submit(() -> holdStreams(target, first / streamsPerSession, count));
+            }
+            for (int i = 0; i < concurrency; i++) {
+                workerExecutor.submit(() -> drive(target, thinkTime));
+            }
+
+            Thread.sleep(warmup.toMillis());
+            measuring = true;
+            long started = System.nanoTime();
+            long burstStarted = 0;
+            if (burstUsers > 0) {
+                Thread.sleep(duration.toMillis() / 2);
+                burstStarted = System.nanoTime();
+                loginBurst = true;
+                for (int i = 0; i < burstUsers; i++) {
+                    workerExecutor.submit(() -> burstLogins(target));
+                }
+                Thread.sleep(duration.toMillis() - duration.toMillis() / 2);
+            } else {
+                Thread.sleep(duration.toMillis());
+            }
+            measuring = false;
+            long finished = System.nanoTime();
+            running = false;
+            report((finished - started) / 1e9, burstUsers > 0 ? (finished - burstStarted) / 1e9 : 0, streams);
+
+            workerExecutor.shutdownNow();
+            streamExecutor.shutdownNow();
+            workerExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startEmbedded() {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:load;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;" +
+                "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--kismet.dataset.users=" + users,
+                "--kismet.dataset.password=" + password));
+        args.addAll(applicationArgs);
+        // DevTools would otherwise relaunch main() with the driver's own arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        long started = System.currentTimeMillis();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(KismetApplication.class)
+                .run(args.toArray(String[]::new));
+        System.out.printf("Started the application with %d synthetic users in %d ms%n", users,
+                System.currentTimeMillis() - started);
+        return context;
+    }
+
+    private void drive(URI target, Duration thinkTime) {
+        LoadSession session = new LoadSession(client, target, randomEmail(), password);
+        try {
+            if (!timed(Endpoint.LOGIN, session::login)) {
+                return;
+            }
+            timed(Endpoint.HOME, () -> session.get("/home").statusCode());
+            while (running) {
+                execute(session, pick());
+                if (!thinkTime.isZero()) {
+                    Thread.sleep(thinkTime.toMillis());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Void burstLogins(URI target) throws InterruptedException {
+        while (running) {
+            LoadSession session = new LoadSession(client, target, randomEmail(), password);
+            int[] status = new int[1];
+            timed(Endpoint.LOGIN, () -> status[0] = session.login());
+            if (status[0] == 503) {
+                // Rejected logins carry Retry-After, which real clients honour instead of hammering the form
+                Thread.sleep(1000);
+            }
+        }
+        return null;
+    }
+
+    private void execute(LoadSession session, Endpoint endpoint) throws InterruptedException {
+        switch (endpoint) {
+            case HOME -> timed(Endpoint.HOME, () -> session.get("/home").statusCode());
+            case LIKE, PASS -> {
+                if (session.candidateId() == null) {
+                    timed(Endpoint.HOME, () -> session.get("/home").statusCode());
+                }
+                if (session.candidateId() != null && timed(endpoint, () -> session.post(endpoint.path,
+                        Map.of("targetId", session.candidateId())).statusCode())) {
+                    timed(Endpoint.HOME, () -> session.get("/home").statusCode());
+                }
+            }
+            case SEARCH -> timed(Endpoint.SEARCH, () -> session.get(endpoint.path + "?query=" +
+                    SEARCH_TERMS[ThreadLocalRandom.current().nextInt(SEARCH_TERMS.length)]).statusCode());
+            case PROFILE -> timed(Endpoint.PROFILE, () -> {
+                HttpResponse<String> response = session.profileETag() == null
+                        ? session.get(endpoint.path)
+                        : session.get(endpoint.path, session.profileETag());
+                response.headers().firstValue("ETag").ifPresent(session::profileETag);
+                return response.statusCode();
+            });
+            case PROFILE_SAVE -> {
+                if (session.profileForm() == null) {
+                    timed(Endpoint.PROFILE_EDIT, () -> session.get(Endpoint.PROFILE_EDIT.path).statusCode());
+                }
+                Map<String, String> form = new LinkedHashMap<>(session.profileForm());
+                form.replaceAll((name, value) -> name.startsWith("answers[") && !value.isEmpty()
+                        && ThreadLocalRandom.current().nextInt(3) == 0
+                        ? SyntheticDataGenerator.sentence(ThreadLocalRandom.current(), 8) : value);
+                timed(Endpoint.PROFILE_SAVE, () -> session.post(endpoint.path, form).statusCode());
+            }
+            case LOGIN -> {
+                if (timed(Endpoint.LOGIN, session::login)) {
+                    timed(Endpoint.HOME, () -> session.get("/home").statusCode());
+                }
+            }
+            default -> timed(endpoint, () -> session.get(endpoint.path).statusCode());
+        }
+    }
+
+    private boolean timed(Endpoint endpoint, Call call) throws InterruptedException {
+        long started = System.nanoTime();
+        boolean ok;
+        try {
+            int status = call.send();
+            ok = status < 300 || (status < 400 && endpoint.redirects) || status == 304;
+        } catch (IOException e) {
+            ok = false;
+        }
+        if (measuring) {
+            // /home is split at the start of a login burst so the two halves can be compared
+            boolean burstHome = endpoint == Endpoint.HOME && loginBurst;
+            (burstHome ? homeDuringBurst : latencies.get(endpoint)).record(System.nanoTime() - started);
+            if (!ok) {
+                (burstHome ? homeErrorsDuringBurst : errors.get(endpoint)).increment();
+            }
+        }
+        return ok;
+    }
+
+    private void holdStreams(URI target, int account, int count) {
+        LoadSession session = new LoadSession(client, target, SyntheticDataGenerator.email(account % users),
+                password);
+        try {
+            if (session.login() != 302) {
+                failedStreams.addAndGet(count);
+                return;
+            }
+            session.get("/home");
+            try (ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < count; i++) {
+                    readers.submit(() -> {
+                        try (InputStream events = session.stream("/api/notifications").body()) {
+                            openStreams.incrementAndGet();
+                            try {
+                                events.transferTo(OutputStream.nullOutputStream());
+                            } finally {
+                                openStreams.decrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            if (running) {
+                                failedStreams.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    });
+                }
+            }
+        } catch (IOException e) {
+            failedStreams.addAndGet(count);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Endpoint pick() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int choice = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            choice -= entry.getValue();
+            if (choice < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty request mix");
+    }
+
+    private String randomEmail() {
+        return SyntheticDataGenerator.email(ThreadLocalRandom.current().nextInt(users));
+    }
+
+    private void report(double seconds, double burstSeconds, int streams) throws IOException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        System.out.printf("%n%-14s %10s %8s %10s %10s %10s %10s %10s %10s%n", "endpoint", "requests", "errors",
+                "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Endpoint endpoint : Endpoint.values()) {
+            double window = endpoint == Endpoint.HOME ? seconds - burstSeconds : seconds;
+            reportRow(results, endpoint.key, latencies.get(endpoint), errors.get(endpoint).sum(), window);
+        }
+        reportRow(results, "home-in-burst", homeDuringBurst, homeErrorsDuringBurst.sum(), burstSeconds);
+        if (streams > 0) {
+            results.put("streams", Map.of("requested", streams, "open", openStreams.get(),
+                    "failed", failedStreams.get()));
+            // The hub flushes response headers with its first heartbeat, so streams only count as open after that
+            System.out.printf("%nStreams: %d requested, %d open at the end, %d failed%n", streams, openStreams.get(),
+                    failedStreams.get());
+        }
+
+        Path report = Path.of(option("report", "target/load-report.json"));
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+        System.out.println("Load report written to " + report.toAbsolutePath());
+    }
+
+    private static void reportRow(Map<String, Object> results, String key, LatencyHistogram histogram, long errors,
+                                  double seconds) {
+        long requests = histogram.count();
+        if (requests == 0) {
+            return;
+        }
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("requests", requests);
+        row.put("errors", errors);
+        row.put("throughput", requests / seconds);
+        row.put("p50Millis", histogram.percentileMicros(50) / 1000.0);
+        row.put("p90Millis", histogram.percentileMicros(90) / 1000.0);
+        row.put("p99Millis", histogram.percentileMicros(99) / 1000.0);
+        row.put("p999Millis", histogram.percentileMicros(99.9) / 1000.0);
+        row.put("maxMillis", histogram.maxMicros() / 1000.0);
+        results.put(key, row);
+        System.out.printf("%-14s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n", key, requests, errors,
+                row.get("throughput"), row.get("p50Millis"), row.get("p90Millis"), row.get("p99Millis"),
+                row.get("p999Millis"), row.get("maxMillis"));
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int send() throws IOException, InterruptedException;
+    }
+
+    private enum Endpoint {
+        LOGIN("login", "/login", true),
+        HOME("home", "/home", false),
+        LIKE("like", "/home/like", true),
+        PASS("pass", "/home/pass", true),
+        MATCHES("matches", "/matches", false),
+        SEARCH("search", "/friends/search", false),
+        PROFILE("profile", "/profile", false),
+        PROFILE_EDIT("profile-edit", "/profile/edit", false),
+        PROFILE_SAVE("profile-save", "/profile/edit", true);
+
+        private final String key;
+        private final String path;
+        private final boolean redirects;
+
+        Endpoint(String key, String path, boolean redirects) {
+            this.key = key;
+            this.path = path;
+            this.redirects = redirects;
+        }
+
+        private static Endpoint of(String key) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint " + key);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.nathandekeyrel.kismet.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// One browser: a session cookie, the latest CSRF token and whatever the last page offered to act on
+final class LoadSession {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Pattern TARGET = Pattern.compile("name=\"targetId\"\\s+value=\"(\\d+)\"");
+    private static final Pattern TEXTAREA =
+            Pattern.compile("<textarea[^>]*\\sname=\"([^\"]+)\"[^>]*>([^<]*)</textarea>");
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final String email;
+    private final String password;
+
+    private String sessionCookie;
+    private String csrfToken;
+    private String candidateId;
+    private String profileETag;
+    private Map<String, String> profileForm;
+
+    LoadSession(HttpClient client, URI baseUri, String email, String password) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.email = email;
+        this.password = password;
+    }
+
+    String candidateId() {
+        return candidateId;
+    }
+
+    Map<String, String> profileForm() {
+        return profileForm;
+    }
+
+    String profileETag() {
+        return profileETag;
+    }
+
+    void profileETag(String profileETag) {
+        this.profileETag = profileETag;
+    }
+
+    int login() throws IOException, InterruptedException {
+        sessionCookie = null;
+        HttpResponse<String> page = get("/login");
+        if (page.statusCode() != 200) {
+            return page.statusCode();
+        }
+        HttpResponse<String> response = post("/login", Map.of("username", email, "password", password));
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302) {
+            return response.statusCode();
+        }
+        return location.contains("error") ? 401 : 302;
+    }
+
+    HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return send(request(path).GET().build());
+    }
+
+    HttpResponse<String> get(String path, String ifNoneMatch) throws IOException, InterruptedException {
+        return send(request(path).header("If-None-Match", ifNoneMatch).GET().build());
+    }
+
+    HttpResponse<String> post(String path, Map<String, String> form) throws IOException, InterruptedException {
+        Map<String, String> fields = new LinkedHashMap<>(form);
+        if (csrfToken != null) {
+            fields.put("_csrf", csrfToken);
+        }
+        StringJoiner body = new StringJoiner("&");
+        fields.forEach((name, value) -> body.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "=" +
+                                                 URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return send(request(path)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build());
+    }
+
+    HttpResponse<InputStream> stream(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Cookie", sessionCookie)
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+        if (sessionCookie != null) {
+            builder.header("Cookie", sessionCookie);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        for (String cookie : response.headers().allValues("Set-Cookie")) {
+            if (cookie.startsWith("JSESSIONID=")) {
+                sessionCookie = cookie.substring(0, cookie.indexOf(';') < 0 ? cookie.length() : cookie.indexOf(';'));
+            }
+        }
+        String body = response.body();
+        if (body != null && !body.isEmpty()) {
+            Matcher csrf = CSRF.matcher(body);
+            if (csrf.find()) {
+                csrfToken = csrf.group(1);
+            }
+            if (request.uri().getPath().equals("/home")) {
+                Matcher target = TARGET.matcher(body);
+                candidateId = target.find() ? target.group(1) : null;
+            } else if (request.uri().getPath().equals("/profile/edit") && request.method().equals("GET")) {
+                profileForm = new LinkedHashMap<>();
+                Matcher textarea = TEXTAREA.matcher(body);
+                while (textarea.find()) {
+                    profileForm.put(textarea.group(1), unescape(textarea.group(2)));
+                }
+            }
+        }
+        return response;
+    }
+
+    private static String unescape(String html) {
+        return html.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&#39;", "'")
+                .replace("&amp;", "&");
+    }
+}
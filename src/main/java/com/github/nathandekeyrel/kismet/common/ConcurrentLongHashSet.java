@@ -0,0 +1,204 @@
+package com.github.nathandekeyrel.kismet.common;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+public class ConcurrentLongHashSet {
+
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+    private static final long EMPTY = 0L;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public ConcurrentLongHashSet() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public ConcurrentLongHashSet(int concurrency) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+        this.stripes = new Stripe[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public boolean add(long key) {
+        long hash = mix(key);
+        Stripe stripe = stripes[(int) (hash >>> 32) & stripeMask];
+        stripe.lock.writeLock().lock();
+        try {
+            return stripe.add(key, hash);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long key) {
+        long hash = mix(key);
+        Stripe stripe = stripes[(int) (hash >>> 32) & stripeMask];
+        stripe.lock.writeLock().lock();
+        try {
+            return stripe.remove(key, hash);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long key) {
+        long hash = mix(key);
+        Stripe stripe = stripes[(int) (hash >>> 32) & stripeMask];
+        stripe.lock.readLock().lock();
+        try {
+            return stripe.contains(key, hash);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                size += stripe.size + (stripe.containsEmpty ? 1 : 0);
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    public void forEach(LongConsumer action) {
+        for (Stripe stripe : stripes) {
+            long[] snapshot;
+            boolean containsEmpty;
+            stripe.lock.readLock().lock();
+            try {
+                snapshot = stripe.table.clone();
+                containsEmpty = stripe.containsEmpty;
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+            if (containsEmpty) {
+                action.accept(EMPTY);
+            }
+            for (long key : snapshot) {
+                if (key != EMPTY) {
+                    action.accept(key);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.writeLock().lock();
+            try {
+                stripe.table = new long[INITIAL_STRIPE_CAPACITY];
+                stripe.size = 0;
+                stripe.containsEmpty = false;
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static final class Stripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private long[] table = new long[INITIAL_STRIPE_CAPACITY];
+        private int size;
+        private boolean containsEmpty;
+
+        private boolean add(long key, long hash) {
+            if (key == EMPTY) {
+                boolean added = !containsEmpty;
+                containsEmpty = true;
+                return added;
+            }
+            int mask = table.length - 1;
+            int slot = (int) hash & mask;
+            while (table[slot] != EMPTY) {
+                if (table[slot] == key) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = key;
+            if (++size * 2 > table.length) {
+                resize();
+            }
+            return true;
+        }
+
+        private boolean contains(long key, long hash) {
+            if (key == EMPTY) {
+                return containsEmpty;
+            }
+            int mask = table.length - 1;
+            int slot = (int) hash & mask;
+            while (table[slot] != EMPTY) {
+                if (table[slot] == key) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        private boolean remove(long key, long hash) {
+            if (key == EMPTY) {
+                boolean removed = containsEmpty;
+                containsEmpty = false;
+                return removed;
+            }
+            int mask = table.length - 1;
+            int slot = (int) hash & mask;
+            while (table[slot] != key) {
+                if (table[slot] == EMPTY) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            int gap = slot;
+            int next = (gap + 1) & mask;
+            while (table[next] != EMPTY) {
+                int home = (int) mix(table[next]) & mask;
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    table[gap] = table[next];
+                    gap = next;
+                }
+                next = (next + 1) & mask;
+            }
+            table[gap] = EMPTY;
+            size--;
+            return true;
+        }
+
+        private void resize() {
+            long[] old = table;
+            table = new long[old.length * 2];
+            int mask = table.length - 1;
+            for (long key : old) {
+                if (key != EMPTY) {
+                    int slot = (int) mix(key) & mask;
+                    while (table[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = key;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.nathandekeyrel.kismet.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // Session statistics feed the hibernate.* meters; the per-session log line they would also write stays off
+    @Bean
+    public HibernatePropertiesCustomizer statisticsCustomizer(
+            @Value("${kismet.hibernate.statistics.enabled:true}") boolean statistics) {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.nathandekeyrel.kismet.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.github.nathandekeyrel.kismet.profile.Profile;
+import com.github.nathandekeyrel.kismet.profile.ProfileAnswer;
+import com.github.nathandekeyrel.kismet.user.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration(proxyBeanMethods = false)
+public class SecondLevelCacheConfig {
+
+    private static final String[] ENTITY_REGIONS = {
+            User.class.getName(),
+            Profile.class.getName(),
+            Profile.class.getName() + ".answers",
+            ProfileAnswer.class.getName()
+    };
+
+    // hibernate-jcache is on the classpath and Hibernate 6 enables the second-level cache by default, so without
+    // this it would build unbounded regions on the fly
+    @Bean
+    @ConditionalOnProperty(name = "kismet.l2-cache.enabled", havingValue = "false", matchIfMissing = true)
+    public HibernatePropertiesCustomizer secondLevelCacheDisabledCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+
+    // Hibernate closes the cache manager when the session factory shuts down
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(name = "kismet.l2-cache.enabled", havingValue = "true")
+    public CacheManager secondLevelCacheManager(MeterRegistry meterRegistry,
+                                                @Value("${kismet.l2-cache.entity-max-size:100000}") long entityMaxSize,
+                                                @Value("${kismet.l2-cache.query-max-size:10000}") long queryMaxSize,
+                                                @Value("${kismet.l2-cache.ttl:PT10M}") Duration ttl) {
+        // A manager of its own per application context, so every region is created here with its bounds rather
+        // than found already configured by someone else
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        URI uri = URI.create("kismet-second-level-cache-" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, provider.getDefaultClassLoader());
+        for (String region : ENTITY_REGIONS) {
+            createRegion(cacheManager, meterRegistry, region, OptionalLong.of(entityMaxSize), ttl);
+        }
+        createRegion(cacheManager, meterRegistry, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                OptionalLong.of(queryMaxSize), ttl);
+        // Update timestamps hold one entry per table and must never be evicted ahead of the query results
+        createRegion(cacheManager, meterRegistry, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                OptionalLong.empty(), null);
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "kismet.l2-cache.enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", secondLevelCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry, String region,
+                                     OptionalLong maxSize, Duration ttl) {
+        if (cacheManager.getCache(region) != null) {
+            throw new IllegalStateException("Second-level cache region " + region + " already exists");
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setStatisticsEnabled(true)
+                .setMaximumSize(maxSize)
+                .setExpireAfterWrite(ttl == null ? OptionalLong.empty() : OptionalLong.of(ttl.toNanos()));
+        JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(region, configuration));
+    }
+}
@@ -1,12 +1,28 @@
 package com.github.nathandekeyrel.kismet.config;
 
+import com.github.nathandekeyrel.kismet.user.PasswordHashingBulkhead;
+import com.github.nathandekeyrel.kismet.user.PasswordHashingRejectedException;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
 
 @Configuration
 @EnableWebSecurity
@@ -17,16 +33,51 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    // Only health is public; Prometheus scrapes with HTTP Basic as a dedicated user and the endpoints stay closed
+    // until a scrape password is configured
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(
+            HttpSecurity http, PasswordEncoder passwordEncoder,
+            @Value("${kismet.metrics.scrape-username:prometheus}") String username,
+            @Value("${kismet.metrics.scrape-password:}") String password) throws Exception {
+        InMemoryUserDetailsManager scrapeUsers = new InMemoryUserDetailsManager();
+        if (!password.isEmpty()) {
+            scrapeUsers.createUser(User.withUsername(username).password(passwordEncoder.encode(password))
+                    .authorities("METRICS").build());
+        }
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(scrapeUsers);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
         http
+            .securityMatcher(EndpointRequest.toAnyEndpoint())
+            .authenticationManager(new ProviderManager(authenticationProvider))
             .authorizeHttpRequests(auth -> auth
+                    .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                    .anyRequest().hasAuthority("METRICS")
+            )
+            .httpBasic(basic -> { })
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .csrf(csrf -> csrf.disable());
+        return http.build();
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, UserDetailsService userDetailsService,
+                                                   PasswordHashingBulkhead passwordHashingBulkhead) throws Exception {
+        // Password checks run on the hashing bulkhead rather than the request thread
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(userDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordHashingBulkhead.passwordEncoder());
+        http
+            .authenticationManager(new ProviderManager(authenticationProvider))
+            .authorizeHttpRequests(auth -> auth
+                    .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                     .requestMatchers("/register").permitAll()
                     .anyRequest().authenticated()
             )
             .formLogin(form -> form
                     .loginPage("/login")
                     .defaultSuccessUrl("/home", true)
+                    .failureHandler(loginFailureHandler())
                     .permitAll()
             )
             .logout(logout -> logout
@@ -36,4 +87,16 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private static AuthenticationFailureHandler loginFailureHandler() {
+        AuthenticationFailureHandler invalidCredentials = new SimpleUrlAuthenticationFailureHandler("/login?error");
+        return (request, response, exception) -> {
+            if (exception instanceof PasswordHashingRejectedException) {
+                response.setHeader("Retry-After", "1");
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            } else {
+                invalidCredentials.onAuthenticationFailure(request, response, exception);
+            }
+        };
+    }
+
 }
@@ -0,0 +1,264 @@
+package com.github.nathandekeyrel.kismet.dataset;
+
+import com.github.nathandekeyrel.kismet.common.ConcurrentLongHashSet;
+import com.github.nathandekeyrel.kismet.profile.PromptType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+@Component
+public class SyntheticDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    public static final String EMAIL_DOMAIN = "@synthetic.kismet";
+
+    private static final String[] FIRST_NAMES = {"Alex", "Sam", "Jordan", "Taylor", "Morgan", "Casey", "Riley",
+            "Jamie", "Avery", "Quinn", "Charlie", "Dakota", "Emerson", "Finley", "Harper", "Jesse", "Kai", "Logan"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas"};
+    private static final String[] WORDS = {"hiking", "coffee", "travel", "music", "books", "cooking", "dogs",
+            "cats", "running", "movies", "art", "climbing", "beach", "mountains", "jazz", "sushi", "yoga", "games",
+            "photography", "gardening", "cycling", "wine", "theatre", "football", "camping", "baking", "chess"};
+
+    private static final String INSERT_USER = "INSERT INTO users (email, password, first_name, last_name, " +
+                                              "date_of_birth, gender) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PROFILE = "INSERT INTO profiles (user_id, bio, version, updated_at) " +
+                                                 "VALUES (?, ?, 0, CURRENT_TIMESTAMP)";
+    private static final String INSERT_ANSWER =
+            "INSERT INTO profile_answers (profile_id, prompt_type, answer_text) VALUES (?, ?, ?)";
+    private static final String INSERT_ACTION = "INSERT INTO match_actions (actor_id, target_id, action) " +
+                                                "VALUES (?, ?, ?)";
+    private static final String INSERT_MATCH = "INSERT INTO mutual_matches (user_one_id, user_two_id) " +
+                                               "VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_FRIENDSHIP =
+            "INSERT INTO friendships (requester_id, addressee_id, status) VALUES (?, ?, ?)";
+    private static final String SYNTHETIC_USERS = "SELECT id, email FROM users WHERE email LIKE '%" +
+                                                  EMAIL_DOMAIN + "'";
+    private static final String SYNTHETIC_PROFILES = "SELECT p.user_id, p.id FROM profiles p " +
+                                                     "JOIN users u ON u.id = p.user_id WHERE u.email LIKE '%" +
+                                                     EMAIL_DOMAIN + "'";
+
+    private static final int ANSWERS_PER_PROFILE = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final String password;
+    private final int batchSize;
+    private final int medianSwipes;
+    private final int maxSwipes;
+    private final int medianFriends;
+    private final int maxFriends;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+                                  @Value("${kismet.dataset.password:synthetic}") String password,
+                                  @Value("${kismet.dataset.batch-size:5000}") int batchSize,
+                                  @Value("${kismet.dataset.median-swipes:30}") int medianSwipes,
+                                  @Value("${kismet.dataset.max-swipes:2000}") int maxSwipes,
+                                  @Value("${kismet.dataset.median-friends:3}") int medianFriends,
+                                  @Value("${kismet.dataset.max-friends:1000}") int maxFriends) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.password = password;
+        this.batchSize = batchSize;
+        this.medianSwipes = medianSwipes;
+        this.maxSwipes = maxSwipes;
+        this.medianFriends = medianFriends;
+        this.maxFriends = maxFriends;
+    }
+
+    public static String email(int index) {
+        return "user" + index + EMAIL_DOMAIN;
+    }
+
+    public static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    // Pareto-distributed: most values sit near the median, a long tail reaches the maximum
+    public static int powerLaw(Random random, int median, double exponent, int maximum) {
+        double minimum = median / Math.pow(2, 1 / exponent);
+        return (int) Math.min(maximum, minimum * Math.pow(1 - random.nextDouble(), -1 / exponent));
+    }
+
+    public DatasetReport generate(int users, long seed) {
+        long started = System.currentTimeMillis();
+        long[] userIds = loadUserIds(users);
+        if (userIds != null) {
+            log.info("Synthetic dataset of {} users already present, skipping generation", users);
+            return new DatasetReport(users, 0, 0, 0, System.currentTimeMillis() - started);
+        }
+
+        Random random = new Random(seed);
+        String passwordHash = passwordEncoder.encode(password);
+        Batch batch = new Batch(INSERT_USER);
+        for (int i = 0; i < users; i++) {
+            batch.add(email(i), passwordHash, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    Date.valueOf(LocalDate.of(1970 + random.nextInt(35), 1 + random.nextInt(12),
+                            1 + random.nextInt(28))),
+                    random.nextBoolean() ? "MALE" : "FEMALE");
+        }
+        batch.flush();
+        userIds = loadUserIds(users);
+        if (userIds == null) {
+            throw new IllegalStateException("Synthetic users were not all inserted");
+        }
+
+        batch = new Batch(INSERT_PROFILE);
+        for (long userId : userIds) {
+            batch.add(userId, sentence(random, 12));
+        }
+        batch.flush();
+
+        Map<Long, Long> profileIds = new HashMap<>(users * 2);
+        jdbcTemplate.query(SYNTHETIC_PROFILES,
+                (RowCallbackHandler) resultSet -> profileIds.put(resultSet.getLong(1), resultSet.getLong(2)));
+        PromptType[] promptTypes = PromptType.values();
+        batch = new Batch(INSERT_ANSWER);
+        for (long userId : userIds) {
+            int first = random.nextInt(promptTypes.length);
+            for (int a = 0; a < ANSWERS_PER_PROFILE; a++) {
+                batch.add(profileIds.get(userId), promptTypes[(first + a * 7) % promptTypes.length].name(),
+                        sentence(random, 8));
+            }
+        }
+        batch.flush();
+
+        long swipes = 0;
+        long matches = 0;
+        Set<Long> likedBack = new HashSet<>();
+        // Likes of users still ahead in the loop; when one of them later likes back, the pair has to match
+        ConcurrentLongHashSet likesAhead = new ConcurrentLongHashSet(1);
+        Batch actions = new Batch(INSERT_ACTION);
+        Batch mutualMatches = new Batch(INSERT_MATCH);
+        for (int i = 0; i < users; i++) {
+            int count = powerLaw(random, medianSwipes, 1.7, Math.min(maxSwipes, users - 1));
+            Set<Integer> swiped = new HashSet<>();
+            for (int s = 0; s < count; s++) {
+                int target = popularUser(random, users);
+                if (target == i || !swiped.add(target) || likedBack.contains(pair(i, target))) {
+                    continue;
+                }
+                boolean like = random.nextInt(10) < 4;
+                actions.add(userIds[i], userIds[target], like ? "LIKE" : "PASS");
+                swipes++;
+                if (like && target < i && likesAhead.contains(pair(target, i))) {
+                    mutualMatches.add(Math.min(userIds[i], userIds[target]), Math.max(userIds[i], userIds[target]));
+                    matches++;
+                } else if (like && target > i && random.nextInt(5) == 0) {
+                    // Only users still ahead in the loop like back, so their own swipes can skip the pair
+                    likedBack.add(pair(target, i));
+                    actions.add(userIds[target], userIds[i], "LIKE");
+                    mutualMatches.add(Math.min(userIds[i], userIds[target]), Math.max(userIds[i], userIds[target]));
+                    swipes++;
+                    matches++;
+                } else if (like && target > i) {
+                    likesAhead.add(pair(i, target));
+                }
+            }
+        }
+        actions.flush();
+        mutualMatches.flush();
+
+        long friendships = 0;
+        Set<Long> pairs = new HashSet<>();
+        batch = new Batch(INSERT_FRIENDSHIP);
+        for (int i = 0; i < users; i++) {
+            int count = powerLaw(random, medianFriends, 2.0, Math.min(maxFriends, users - 1));
+            for (int f = 0; f < count; f++) {
+                int friend = popularUser(random, users);
+                if (friend == i || !pairs.add(pair(Math.min(i, friend), Math.max(i, friend)))) {
+                    continue;
+                }
+                batch.add(userIds[i], userIds[friend], random.nextInt(10) == 0 ? "PENDING" : "ACCEPTED");
+                friendships++;
+            }
+        }
+        batch.flush();
+
+        DatasetReport report = new DatasetReport(users, swipes, matches, friendships,
+                System.currentTimeMillis() - started);
+        log.info("Generated {} synthetic users with {} swipes, {} matches and {} friendships in {} ms",
+                users, swipes, matches, friendships, report.elapsedMillis());
+        return report;
+    }
+
+    private long[] loadUserIds(int users) {
+        long[] userIds = new long[users];
+        int[] found = new int[1];
+        jdbcTemplate.query(SYNTHETIC_USERS, (RowCallbackHandler) resultSet -> {
+            String email = resultSet.getString(2);
+            int index = Integer.parseInt(email.substring(4, email.length() - EMAIL_DOMAIN.length()));
+            if (index < users) {
+                userIds[index] = resultSet.getLong(1);
+                found[0]++;
+            }
+        });
+        if (found[0] == 0) {
+            return null;
+        }
+        if (found[0] < users) {
+            throw new IllegalStateException("Found " + found[0] + " of " + users + " synthetic users; " +
+                                            "remove the partial dataset before generating again");
+        }
+        return userIds;
+    }
+
+    private static long pair(int left, int right) {
+        return ((long) left << 32) | right;
+    }
+
+    // Squaring a uniform draw concentrates swipes and friend requests on the lowest indexes
+    private static int popularUser(Random random, int users) {
+        double skewed = random.nextDouble();
+        return (int) (users * skewed * skewed);
+    }
+
+    public record DatasetReport(int users, long swipes, long matches, long friendships, long elapsedMillis) {
+    }
+
+    private final class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        private Batch(String sql) {
+            this.sql = sql;
+        }
+
+        private void add(Object... row) {
+            rows.add(row);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.nathandekeyrel.kismet.dataset;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+// Runners finish before ApplicationReadyEvent, so the in-memory indexes load the generated rows
+@Component
+@ConditionalOnProperty(name = "kismet.dataset.users")
+public class SyntheticDataRunner implements ApplicationRunner {
+
+    private final SyntheticDataGenerator syntheticDataGenerator;
+    private final ConfigurableApplicationContext applicationContext;
+    private final int users;
+    private final long seed;
+    private final boolean exitWhenDone;
+
+    public SyntheticDataRunner(SyntheticDataGenerator syntheticDataGenerator,
+                               ConfigurableApplicationContext applicationContext,
+                               @Value("${kismet.dataset.users}") int users,
+                               @Value("${kismet.dataset.seed:42}") long seed,
+                               @Value("${kismet.dataset.exit-when-done:false}") boolean exitWhenDone) {
+        this.syntheticDataGenerator = syntheticDataGenerator;
+        this.applicationContext = applicationContext;
+        this.users = users;
+        this.seed = seed;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        syntheticDataGenerator.generate(users, seed);
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+}
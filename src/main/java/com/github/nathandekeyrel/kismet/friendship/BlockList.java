@@ -0,0 +1,110 @@
+package com.github.nathandekeyrel.kismet.friendship;
+
+import com.github.nathandekeyrel.kismet.common.ConcurrentLongHashSet;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class BlockList {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockList.class);
+
+    private static final String BLOCKS_QUERY =
+            "SELECT requester_id, addressee_id FROM friendships WHERE status = 'BLOCKED'";
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Object mutationLock = new Object();
+
+    private volatile ConcurrentLongHashSet blocks = new ConcurrentLongHashSet();
+    private List<Change> changesDuringReload;
+
+    public BlockList(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static long pairKey(long blockerId, long blockedId) {
+        return ((long) Math.toIntExact(blockerId) << 32) | (Math.toIntExact(blockedId) & 0xFFFFFFFFL);
+    }
+
+    public boolean isBlocked(Long userId, Long otherUserId) {
+        ConcurrentLongHashSet current = blocks;
+        return current.contains(pairKey(userId, otherUserId)) || current.contains(pairKey(otherUserId, userId));
+    }
+
+    public void block(Long blockerId, Long blockedId) {
+        apply(new Change(pairKey(blockerId, blockedId), true));
+    }
+
+    public void unblock(Long blockerId, Long blockedId) {
+        apply(new Change(pairKey(blockerId, blockedId), false));
+    }
+
+    public long size() {
+        return blocks.size();
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${kismet.blocks.refresh-interval:PT15S}",
+               initialDelayString = "${kismet.blocks.refresh-interval:PT15S}")
+    public synchronized void reload() {
+        long started = System.currentTimeMillis();
+        synchronized (mutationLock) {
+            changesDuringReload = new ArrayList<>();
+        }
+
+        ConcurrentLongHashSet loaded = new ConcurrentLongHashSet();
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(BLOCKS_QUERY);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> loaded.add(pairKey(resultSet.getLong(1), resultSet.getLong(2))));
+        } catch (RuntimeException e) {
+            synchronized (mutationLock) {
+                changesDuringReload = null;
+            }
+            throw e;
+        }
+
+        synchronized (mutationLock) {
+            for (Change change : changesDuringReload) {
+                change.applyTo(loaded);
+            }
+            changesDuringReload = null;
+            blocks = loaded;
+        }
+        log.debug("Reloaded {} blocks in {} ms", loaded.size(), System.currentTimeMillis() - started);
+    }
+
+    private void apply(Change change) {
+        synchronized (mutationLock) {
+            change.applyTo(blocks);
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        }
+    }
+
+    private record Change(long pair, boolean blocked) {
+        private void applyTo(ConcurrentLongHashSet set) {
+            if (blocked) {
+                set.add(pair);
+            } else {
+                set.remove(pair);
+            }
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.github.nathandekeyrel.kismet.friendship;
+
+import com.github.nathandekeyrel.kismet.common.LongIntHashMap;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+
+@Component
+public class FriendGraph {
+
+    private static final Logger log = LoggerFactory.getLogger(FriendGraph.class);
+
+    private static final int[] NO_FRIENDS = new int[0];
+    private static final int FETCH_SIZE = 10_000;
+    private static final String ACCEPTED_QUERY =
+            "SELECT requester_id, addressee_id FROM friendships WHERE status = 'ACCEPTED'";
+
+    private static final Comparator<Suggestion> WEAKEST_FIRST = Comparator.comparingInt(Suggestion::mutualFriends)
+            .thenComparing(Comparator.comparingLong(Suggestion::userId).reversed());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int parallelThreshold;
+    private final int parallelism;
+    private final ForkJoinPool suggestionPool;
+    private final Object mutationLock = new Object();
+
+    // Readers share the lock; friendship changes and the swap after a reload take it exclusively
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Graph graph = new Graph(new LongIntHashMap(), new int[]{0}, NO_FRIENDS);
+    private volatile boolean ready;
+    private List<Change> changesDuringReload;
+
+    public FriendGraph(JdbcTemplate jdbcTemplate,
+                       @Value("${kismet.friends.parallel-threshold:256}") int parallelThreshold,
+                       @Value("${kismet.friends.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.parallelThreshold = parallelThreshold;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.suggestionPool = new ForkJoinPool(this.parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        suggestionPool.shutdownNow();
+    }
+
+    public List<Long> getFriendIds(Long userId) {
+        lock.readLock().lock();
+        try {
+            Row friends = graph.friendsOf(Math.toIntExact(userId));
+            List<Long> ids = new ArrayList<>(friends.size());
+            for (int i = friends.from(); i < friends.to(); i++) {
+                ids.add((long) friends.ids()[i]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean areFriends(Long userId, Long otherUserId) {
+        lock.readLock().lock();
+        try {
+            return graph.friendsOf(Math.toIntExact(userId)).contains(Math.toIntExact(otherUserId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countMutualFriends(Long userId, Long otherUserId) {
+        Row left;
+        Row right;
+        lock.readLock().lock();
+        try {
+            left = graph.friendsOf(Math.toIntExact(userId));
+            right = graph.friendsOf(Math.toIntExact(otherUserId));
+        } finally {
+            lock.readLock().unlock();
+        }
+        int count = 0;
+        int i = left.from();
+        int j = right.from();
+        while (i < left.to() && j < right.to()) {
+            if (left.ids()[i] < right.ids()[j]) {
+                i++;
+            } else if (left.ids()[i] > right.ids()[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    public List<Suggestion> suggest(Long userId, int limit) {
+        return suggest(userId, limit, candidate -> false);
+    }
+
+    public List<Suggestion> suggest(Long userId, int limit, LongPredicate excluded) {
+        int self = Math.toIntExact(userId);
+        LongIntHashMap counts;
+        Row friends;
+        lock.readLock().lock();
+        try {
+            Graph snapshot = graph;
+            friends = snapshot.friendsOf(self);
+            int size = friends.size();
+            if (size >= parallelThreshold) {
+                int chunks = parallelism * 4;
+                int chunkSize = (size + chunks - 1) / chunks;
+                Row row = friends;
+                counts = suggestionPool.submit(() -> IntStream.range(0, chunks).parallel()
+                        .mapToObj(chunk -> countFriendsOfFriends(snapshot, row,
+                                row.from() + Math.min(size, chunk * chunkSize),
+                                row.from() + Math.min(size, (chunk + 1) * chunkSize)))
+                        .reduce(FriendGraph::merge)
+                        .orElseGet(LongIntHashMap::new)).join();
+            } else {
+                counts = countFriendsOfFriends(snapshot, friends, friends.from(), friends.to());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        PriorityQueue<Suggestion> best = new PriorityQueue<>(limit + 1, WEAKEST_FIRST);
+        counts.forEach((candidate, mutualFriends) -> {
+            if (candidate == self || friends.contains((int) candidate) || excluded.test(candidate)) {
+                return;
+            }
+            best.offer(new Suggestion(candidate, mutualFriends));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        });
+
+        List<Suggestion> suggestions = new ArrayList<>(best);
+        suggestions.sort(WEAKEST_FIRST.reversed());
+        return suggestions;
+    }
+
+    public void addFriendship(Long userId, Long otherUserId) {
+        apply(new Change(Math.toIntExact(userId), Math.toIntExact(otherUserId), true));
+    }
+
+    public void removeFriendship(Long userId, Long otherUserId) {
+        apply(new Change(Math.toIntExact(userId), Math.toIntExact(otherUserId), false));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Friendships accepted or removed on other nodes only reach this one through the reload
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${kismet.friends.refresh-interval:PT1M}",
+               initialDelayString = "${kismet.friends.refresh-interval:PT1M}")
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        synchronized (mutationLock) {
+            changesDuringReload = new ArrayList<>();
+        }
+
+        EdgeList edges = new EdgeList();
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(ACCEPTED_QUERY);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> edges.add(resultSet.getLong(1), resultSet.getLong(2)));
+        } catch (RuntimeException e) {
+            synchronized (mutationLock) {
+                changesDuringReload = null;
+            }
+            throw e;
+        }
+
+        long[] packed = Arrays.copyOf(edges.packed, edges.size);
+        Arrays.parallelSort(packed);
+        Graph loaded = Graph.fromSortedEdges(packed);
+
+        synchronized (mutationLock) {
+            for (Change change : changesDuringReload) {
+                change.applyTo(loaded);
+            }
+            changesDuringReload = null;
+            lock.writeLock().lock();
+            try {
+                graph = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (!ready) {
+            ready = true;
+            log.info("Loaded {} friendships for {} users into the friend graph in {} ms", packed.length / 2,
+                    loaded.users(), System.currentTimeMillis() - started);
+        } else {
+            log.debug("Reloaded {} friendships into the friend graph in {} ms", packed.length / 2,
+                    System.currentTimeMillis() - started);
+        }
+    }
+
+    private void apply(Change change) {
+        synchronized (mutationLock) {
+            lock.writeLock().lock();
+            try {
+                change.applyTo(graph);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        }
+    }
+
+    private static LongIntHashMap countFriendsOfFriends(Graph graph, Row friends, int from, int to) {
+        LongIntHashMap counts = new LongIntHashMap();
+        for (int i = from; i < to; i++) {
+            Row friendsOfFriend = graph.friendsOf(friends.ids()[i]);
+            for (int j = friendsOfFriend.from(); j < friendsOfFriend.to(); j++) {
+                counts.addTo(friendsOfFriend.ids()[j], 1);
+            }
+        }
+        return counts;
+    }
+
+    private static LongIntHashMap merge(LongIntHashMap left, LongIntHashMap right) {
+        if (left.size() < right.size()) {
+            return merge(right, left);
+        }
+        right.forEach(left::addTo);
+        return left;
+    }
+
+    private static int[] insert(Row friends, int friend) {
+        int position = friends.indexOf(friend);
+        if (position >= 0) {
+            return null;
+        }
+        int insertAt = -position - 1 - friends.from();
+        int[] updated = new int[friends.size() + 1];
+        System.arraycopy(friends.ids(), friends.from(), updated, 0, insertAt);
+        updated[insertAt] = friend;
+        System.arraycopy(friends.ids(), friends.from() + insertAt, updated, insertAt + 1, friends.size() - insertAt);
+        return updated;
+    }
+
+    private static int[] delete(Row friends, int friend) {
+        int position = friends.indexOf(friend);
+        if (position < 0) {
+            return null;
+        }
+        int removeAt = position - friends.from();
+        int[] updated = new int[friends.size() - 1];
+        System.arraycopy(friends.ids(), friends.from(), updated, 0, removeAt);
+        System.arraycopy(friends.ids(), position + 1, updated, removeAt, friends.size() - removeAt - 1);
+        return updated;
+    }
+
+    public record Suggestion(long userId, int mutualFriends) {
+    }
+
+    private record Change(int userId, int otherUserId, boolean friends) {
+        private void applyTo(Graph graph) {
+            graph.update(userId, otherUserId, friends);
+            graph.update(otherUserId, userId, friends);
+        }
+    }
+
+    // A slice of one of the graph's sorted neighbour arrays
+    private record Row(int[] ids, int from, int to) {
+        private int size() {
+            return to - from;
+        }
+
+        private int indexOf(int id) {
+            return Arrays.binarySearch(ids, from, to, id);
+        }
+
+        private boolean contains(int id) {
+            return indexOf(id) >= 0;
+        }
+    }
+
+    // Compressed sparse rows loaded from the table: user ids map to a row, whose friends are
+    // neighbors[offsets[row]..offsets[row + 1]). Rows changed since the load are kept whole in the overlay until
+    // the next reload compacts them back in
+    private static final class Graph {
+        private final LongIntHashMap rows;
+        private final int[] offsets;
+        private final int[] neighbors;
+        private final LongIntHashMap overlayRows = new LongIntHashMap();
+        private final List<int[]> overlay = new ArrayList<>();
+
+        private Graph(LongIntHashMap rows, int[] offsets, int[] neighbors) {
+            this.rows = rows;
+            this.offsets = offsets;
+            this.neighbors = neighbors;
+        }
+
+        private static Graph fromSortedEdges(long[] packed) {
+            LongIntHashMap rows = new LongIntHashMap();
+            int[] offsets = new int[16];
+            int[] neighbors = new int[packed.length];
+            int users = 0;
+            int length = 0;
+            for (int i = 0; i < packed.length; i++) {
+                int source = (int) (packed[i] >>> 32);
+                int target = (int) packed[i];
+                if (i == 0 || source != (int) (packed[i - 1] >>> 32)) {
+                    if (users + 1 == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                    }
+                    rows.put(source, users);
+                    offsets[users++] = length;
+                } else if (target == neighbors[length - 1]) {
+                    continue;
+                }
+                neighbors[length++] = target;
+            }
+            offsets[users] = length;
+            return new Graph(rows, Arrays.copyOf(offsets, users + 1), Arrays.copyOf(neighbors, length));
+        }
+
+        private int users() {
+            return rows.size();
+        }
+
+        private Row friendsOf(int userId) {
+            int changed = overlayRows.get(userId, -1);
+            if (changed >= 0) {
+                int[] friends = overlay.get(changed);
+                return new Row(friends, 0, friends.length);
+            }
+            int row = rows.get(userId, -1);
+            return row < 0 ? new Row(NO_FRIENDS, 0, 0) : new Row(neighbors, offsets[row], offsets[row + 1]);
+        }
+
+        private void update(int userId, int friend, boolean add) {
+            Row current = friendsOf(userId);
+            int[] updated = add ? insert(current, friend) : delete(current, friend);
+            if (updated == null) {
+                return;
+            }
+            int changed = overlayRows.get(userId, -1);
+            if (changed >= 0) {
+                overlay.set(changed, updated);
+            } else {
+                overlayRows.put(userId, overlay.size());
+                overlay.add(updated);
+            }
+        }
+    }
+
+    private static final class EdgeList {
+        private long[] packed = new long[1024];
+        private int size;
+
+        private void add(long requesterId, long addresseeId) {
+            if (size + 2 > packed.length) {
+                packed = Arrays.copyOf(packed, packed.length * 2);
+            }
+            int requester = Math.toIntExact(requesterId);
+            int addressee = Math.toIntExact(addresseeId);
+            packed[size++] = ((long) requester << 32) | (addressee & 0xFFFFFFFFL);
+            packed[size++] = ((long) addressee << 32) | (requester & 0xFFFFFFFFL);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.github.nathandekeyrel.kismet.friendship;
+
+public record FriendRequestSentEvent(Long requesterId, Long addresseeId) {
+}
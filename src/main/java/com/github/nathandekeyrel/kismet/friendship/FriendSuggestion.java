@@ -0,0 +1,6 @@
+package com.github.nathandekeyrel.kismet.friendship;
+
+import com.github.nathandekeyrel.kismet.user.User;
+
+public record FriendSuggestion(User user, int mutualFriends) {
+}
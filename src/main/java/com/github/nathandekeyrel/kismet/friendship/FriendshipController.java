@@ -27,10 +27,14 @@ public class FriendshipController {
         User currentUser = userService.getCurrentUser(principal);
 
         List<Friendship> pendingRequests = friendshipService.getFriendRequests(currentUser);
-        List<Friendship> acceptedFriends = friendshipService.getFriends(currentUser);
+        List<User> acceptedFriends = friendshipService.getFriends(currentUser);
+        List<FriendSuggestion> suggestions = friendshipService.getSuggestions(currentUser);
+        List<User> blockedUsers = friendshipService.getBlockedUsers(currentUser);
 
         model.addAttribute("pendingRequests", pendingRequests);
         model.addAttribute("acceptedFriends", acceptedFriends);
+        model.addAttribute("suggestions", suggestions);
+        model.addAttribute("blockedUsers", blockedUsers);
         model.addAttribute("currentUser", currentUser);
 
         return "friends";
@@ -55,16 +59,27 @@ public class FriendshipController {
     }
 
     @GetMapping("/friends/search")
-    public String searchFriends(@RequestParam("query") String query, Model model, Principal principal) {
+    public String searchFriends(@RequestParam("query") String query,
+                                @RequestParam(value = "page", defaultValue = "0") int page,
+                                Model model, Principal principal) {
         User currentUser = userService.getCurrentUser(principal);
 
-        List<User> searchResults = friendshipService.searchUsers(query, currentUser);
+        List<User> searchResults = friendshipService.searchUsers(query, currentUser, page);
         List<Friendship> pendingRequests = friendshipService.getFriendRequests(currentUser);
-        List<Friendship> acceptedFriends = friendshipService.getFriends(currentUser);
+        List<User> acceptedFriends = friendshipService.getFriends(currentUser);
+        List<FriendSuggestion> suggestions = friendshipService.getSuggestions(currentUser);
+        List<User> blockedUsers = friendshipService.getBlockedUsers(currentUser);
 
         model.addAttribute("searchResults", searchResults);
+        model.addAttribute("statuses", friendshipService.statusesFor(currentUser,
+                searchResults.stream().map(User::getId).toList()));
+        model.addAttribute("query", query);
+        model.addAttribute("page", page);
+        model.addAttribute("hasNextPage", searchResults.size() == userService.getSearchPageSize());
         model.addAttribute("pendingRequests", pendingRequests);
         model.addAttribute("acceptedFriends", acceptedFriends);
+        model.addAttribute("suggestions", suggestions);
+        model.addAttribute("blockedUsers", blockedUsers);
         model.addAttribute("currentUser", currentUser);
 
         return "friends";
@@ -78,9 +93,31 @@ public class FriendshipController {
 
         String result = friendshipService.addFriend(currentUser, targetUser);
 
-        if (result.equals("already_exists")) {
+        if (result.equals("already_exists") || result.equals("blocked")) {
             return "redirect:/friends?error=" + result;
         }
         return "redirect:/friends?success=" + result;
     }
+
+    @PostMapping("/friends/block")
+    public String blockUser(@RequestParam("userId") Long userId, Principal principal) {
+        User currentUser = userService.getCurrentUser(principal);
+
+        User targetUser = userService.getUserById(userId);
+
+        friendshipService.blockUser(currentUser, targetUser);
+
+        return "redirect:/friends";
+    }
+
+    @PostMapping("/friends/unblock")
+    public String unblockUser(@RequestParam("userId") Long userId, Principal principal) {
+        User currentUser = userService.getCurrentUser(principal);
+
+        User targetUser = userService.getUserById(userId);
+
+        friendshipService.unblockUser(currentUser, targetUser);
+
+        return "redirect:/friends";
+    }
 }
@@ -0,0 +1,9 @@
+package com.github.nathandekeyrel.kismet.friendship;
+
+public interface FriendshipLink {
+    Long getRequesterId();
+
+    Long getAddresseeId();
+
+    FriendshipStatus getStatus();
+}
@@ -1,19 +1,41 @@
 package com.github.nathandekeyrel.kismet.friendship;
 
 import com.github.nathandekeyrel.kismet.user.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
+    @EntityGraph(attributePaths = {"requester", "addressee"})
     List<Friendship> findByAddresseeAndStatus(User addressee, FriendshipStatus status);
 
+    @EntityGraph(attributePaths = {"requester", "addressee"})
+    List<Friendship> findByRequesterAndStatus(User requester, FriendshipStatus status);
+
+    @EntityGraph(attributePaths = {"requester", "addressee"})
     @Query("SELECT f FROM Friendship f WHERE (f.requester = :user OR f.addressee = :user) AND f.status = 'ACCEPTED'")
     List<Friendship> findAcceptedFriendships(@Param("user") User user);
 
     @Query("SELECT f FROM Friendship f WHERE (f.requester = :user1 AND f.addressee = :user2) OR (f.requester = :user2 AND f.addressee = :user1)")
-    Optional<Friendship> findFriendshipBetween(@Param("user1") User user1, @Param("user2") User user2);
+    List<Friendship> findAllBetween(@Param("user1") User user1, @Param("user2") User user2);
+
+    @Modifying
+    @Query("DELETE FROM Friendship f WHERE f.requester = :blocker AND f.addressee = :blocked AND f.status = 'BLOCKED'")
+    int deleteBlock(@Param("blocker") User blocker, @Param("blocked") User blocked);
+
+    @Query("SELECT f.requester.id AS requesterId, f.addressee.id AS addresseeId, f.status AS status FROM Friendship f " +
+           "WHERE (f.requester.id = :userId AND f.addressee.id IN :otherUserIds) " +
+           "OR (f.addressee.id = :userId AND f.requester.id IN :otherUserIds)")
+    List<FriendshipLink> findLinksBetween(@Param("userId") Long userId,
+                                          @Param("otherUserIds") Collection<Long> otherUserIds);
+
+    @Query("SELECT CASE WHEN f.requester.id = :userId THEN f.addressee.id ELSE f.requester.id END " +
+           "FROM Friendship f WHERE (f.requester.id = :userId OR f.addressee.id = :userId) AND f.status = 'PENDING'")
+    Set<Long> findPendingRequestUserIds(@Param("userId") Long userId);
 }
@@ -2,38 +2,110 @@ package com.github.nathandekeyrel.kismet.friendship;
 
 import com.github.nathandekeyrel.kismet.user.User;
 import com.github.nathandekeyrel.kismet.user.UserService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 @Service
+@Timed(value = "kismet.service", histogram = true)
 public class FriendshipService {
 
     private final UserService userService;
     private final FriendshipRepository friendshipRepository;
-
-    public FriendshipService(UserService userService, FriendshipRepository friendshipRepository) {
+    private final FriendGraph friendGraph;
+    private final BlockList blockList;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int suggestionLimit;
+
+    public FriendshipService(UserService userService, FriendshipRepository friendshipRepository,
+                             FriendGraph friendGraph, BlockList blockList, ApplicationEventPublisher eventPublisher,
+                             @Value("${kismet.friends.suggestions:10}") int suggestionLimit) {
         this.userService = userService;
         this.friendshipRepository = friendshipRepository;
+        this.friendGraph = friendGraph;
+        this.blockList = blockList;
+        this.eventPublisher = eventPublisher;
+        this.suggestionLimit = suggestionLimit;
     }
 
     public List<Friendship> getFriendRequests(User currentUser) {
         return friendshipRepository.findByAddresseeAndStatus(currentUser, FriendshipStatus.PENDING);
     }
 
-    public List<Friendship> getFriends(User currentUser) {
-        return friendshipRepository.findAcceptedFriendships(currentUser);
+    public List<User> getFriends(User currentUser) {
+        List<Long> friendIds;
+        if (friendGraph.isReady()) {
+            friendIds = friendGraph.getFriendIds(currentUser.getId());
+        } else {
+            friendIds = friendshipRepository.findAcceptedFriendships(currentUser).stream()
+                    .map(friendship -> friendship.getRequester().getId().equals(currentUser.getId())
+                            ? friendship.getAddressee().getId()
+                            : friendship.getRequester().getId())
+                    .toList();
+        }
+        List<User> friends = userService.getUsersByIds(friendIds);
+        friends.sort(Comparator.comparing(User::getLastName).thenComparing(User::getFirstName));
+        return friends;
+    }
+
+    public List<FriendSuggestion> getSuggestions(User currentUser) {
+        Long userId = currentUser.getId();
+        Set<Long> pending = friendshipRepository.findPendingRequestUserIds(userId);
+        List<FriendGraph.Suggestion> suggestions = friendGraph.suggest(userId, suggestionLimit,
+                candidate -> blockList.isBlocked(userId, candidate) || pending.contains(candidate));
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userService.getUsersByIds(suggestions.stream().map(FriendGraph.Suggestion::userId).toList())) {
+            users.put(user.getId(), user);
+        }
+
+        List<FriendSuggestion> result = new ArrayList<>(suggestions.size());
+        for (FriendGraph.Suggestion suggestion : suggestions) {
+            User user = users.get(suggestion.userId());
+            if (user != null) {
+                result.add(new FriendSuggestion(user, suggestion.mutualFriends()));
+            }
+        }
+        return result;
+    }
+
+    public RelationshipStatuses statusesFor(User currentUser, Collection<Long> otherUserIds) {
+        RelationshipStatuses statuses = new RelationshipStatuses(otherUserIds.size());
+        if (otherUserIds.isEmpty()) {
+            return statuses;
+        }
+        for (FriendshipLink link : friendshipRepository.findLinksBetween(currentUser.getId(), otherUserIds)) {
+            boolean sentByCurrentUser = link.getRequesterId().equals(currentUser.getId());
+            long otherUserId = sentByCurrentUser ? link.getAddresseeId() : link.getRequesterId();
+            statuses.put(otherUserId, switch (link.getStatus()) {
+                case ACCEPTED -> RelationshipStatus.FRIENDS;
+                case PENDING -> sentByCurrentUser ? RelationshipStatus.REQUEST_SENT : RelationshipStatus.REQUEST_RECEIVED;
+                case BLOCKED -> RelationshipStatus.BLOCKED;
+                case DECLINED -> RelationshipStatus.NONE;
+            });
+        }
+        return statuses;
     }
 
     public void acceptFriendRequest(Long friendshipId, User currentUser)  {
         Friendship friendship = friendshipRepository.findById(friendshipId)
                 .orElseThrow(() -> new UsernameNotFoundException("Invalid friendship ID"));
 
-        if (friendship.getAddressee().getId().equals(currentUser.getId())) {
+        if (friendship.getAddressee().getId().equals(currentUser.getId())
+                && friendship.getStatus() == FriendshipStatus.PENDING) {
             friendship.setStatus(FriendshipStatus.ACCEPTED);
             friendshipRepository.save(friendship);
+            friendGraph.addFriendship(friendship.getRequester().getId(), currentUser.getId());
         }
     }
 
@@ -41,30 +113,38 @@ public class FriendshipService {
         Friendship friendship = friendshipRepository.findById(friendshipId)
                 .orElseThrow(() -> new UsernameNotFoundException("Invalid friendship ID"));
 
-        if (friendship.getAddressee().getId().equals(currentUser.getId())) {
+        if (friendship.getAddressee().getId().equals(currentUser.getId())
+                && friendship.getStatus() != FriendshipStatus.BLOCKED) {
             friendshipRepository.delete(friendship);
+            friendGraph.removeFriendship(friendship.getRequester().getId(), currentUser.getId());
         }
     }
 
-    public List<User> searchUsers(String query, User currentUser) {
-        List<User> results = userService.getByFirstOrLastName(query);
-
-        return results.stream()
-                .filter(user -> !user.getId().equals(currentUser.getId()))
-                .toList();
+    public List<User> searchUsers(String query, User currentUser, int page) {
+        return userService.searchByName(query, currentUser.getId(), page);
     }
 
     public String addFriend(User currentUser, User targetUser) {
-        Optional<Friendship> existingFriendshipOpt = friendshipRepository.findFriendshipBetween(currentUser, targetUser);
+        if (blockList.isBlocked(currentUser.getId(), targetUser.getId())) {
+            return "blocked";
+        }
+        List<Friendship> existingFriendships = friendshipRepository.findAllBetween(currentUser, targetUser);
+        for (Friendship friendship : existingFriendships) {
+            if (friendship.getStatus() == FriendshipStatus.BLOCKED) {
+                blockList.block(friendship.getRequester().getId(), friendship.getAddressee().getId());
+                return "blocked";
+            }
+        }
 
-        if (existingFriendshipOpt.isPresent()) {
-            Friendship existingFriendship = existingFriendshipOpt.get();
+        if (!existingFriendships.isEmpty()) {
+            Friendship existingFriendship = existingFriendships.getFirst();
 
             if (existingFriendship.getStatus().equals(FriendshipStatus.PENDING) &&
                     existingFriendship.getAddressee().getId().equals(currentUser.getId())) {
 
                 existingFriendship.setStatus(FriendshipStatus.ACCEPTED);
                 friendshipRepository.save(existingFriendship);
+                friendGraph.addFriendship(existingFriendship.getRequester().getId(), currentUser.getId());
 
                 return "accepted";
             }
@@ -75,8 +155,44 @@ public class FriendshipService {
             newRequest.setAddressee(targetUser);
             newRequest.setStatus(FriendshipStatus.PENDING);
             friendshipRepository.save(newRequest);
+            eventPublisher.publishEvent(new FriendRequestSentEvent(currentUser.getId(), targetUser.getId()));
 
             return "sent";
         }
     }
+
+    public List<User> getBlockedUsers(User currentUser) {
+        return friendshipRepository.findByRequesterAndStatus(currentUser, FriendshipStatus.BLOCKED).stream()
+                .map(Friendship::getAddressee)
+                .toList();
+    }
+
+    @Transactional
+    public void blockUser(User currentUser, User targetUser) {
+        if (currentUser.getId().equals(targetUser.getId())) {
+            return;
+        }
+        for (Friendship friendship : friendshipRepository.findAllBetween(currentUser, targetUser)) {
+            if (friendship.getStatus() != FriendshipStatus.BLOCKED) {
+                friendshipRepository.delete(friendship);
+            } else if (friendship.getRequester().getId().equals(currentUser.getId())) {
+                blockList.block(currentUser.getId(), targetUser.getId());
+                return;
+            }
+        }
+
+        Friendship block = new Friendship();
+        block.setRequester(currentUser);
+        block.setAddressee(targetUser);
+        block.setStatus(FriendshipStatus.BLOCKED);
+        friendshipRepository.save(block);
+        friendGraph.removeFriendship(currentUser.getId(), targetUser.getId());
+        blockList.block(currentUser.getId(), targetUser.getId());
+    }
+
+    @Transactional
+    public void unblockUser(User currentUser, User targetUser) {
+        friendshipRepository.deleteBlock(currentUser, targetUser);
+        blockList.unblock(currentUser.getId(), targetUser.getId());
+    }
 }
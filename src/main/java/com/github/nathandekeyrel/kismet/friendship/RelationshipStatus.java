@@ -0,0 +1,9 @@
+package com.github.nathandekeyrel.kismet.friendship;
+
+public enum RelationshipStatus {
+    NONE,
+    FRIENDS,
+    REQUEST_SENT,
+    REQUEST_RECEIVED,
+    BLOCKED
+}
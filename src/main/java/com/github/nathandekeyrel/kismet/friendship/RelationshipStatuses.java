@@ -0,0 +1,26 @@
+package com.github.nathandekeyrel.kismet.friendship;
+
+import com.github.nathandekeyrel.kismet.common.LongIntHashMap;
+
+public class RelationshipStatuses {
+
+    private static final RelationshipStatus[] STATUSES = RelationshipStatus.values();
+
+    private final LongIntHashMap statuses;
+
+    RelationshipStatuses(int expectedSize) {
+        this.statuses = new LongIntHashMap(expectedSize);
+    }
+
+    void put(long userId, RelationshipStatus status) {
+        statuses.put(userId, status.ordinal());
+    }
+
+    public RelationshipStatus get(Long userId) {
+        return STATUSES[statuses.get(userId, RelationshipStatus.NONE.ordinal())];
+    }
+
+    public int size() {
+        return statuses.size();
+    }
+}
@@ -0,0 +1,226 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class BatchedSwipeWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchedSwipeWriter.class);
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final long shutdownTimeoutMillis;
+
+    private final BlockingQueue<PendingSwipe> queue;
+    // Targets each actor has swiped that are queued or in a batch not yet written
+    private final Map<Long, List<Long>> pendingByActor = new ConcurrentHashMap<>();
+
+    // Enqueuers share the read lock; stop takes the write lock, so no swipe is offered after the writer's last drain
+    private final ReentrantReadWriteLock runningLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public BatchedSwipeWriter(JdbcTemplate jdbcTemplate,
+                              @Value("${kismet.swipes.write-behind.enabled:false}") boolean enabled,
+                              @Value("${kismet.swipes.write-behind.queue-capacity:10000}") int queueCapacity,
+                              @Value("${kismet.swipes.write-behind.batch-size:500}") int batchSize,
+                              @Value("${kismet.swipes.write-behind.flush-interval:50ms}") Duration flushInterval,
+                              @Value("${kismet.swipes.write-behind.offer-timeout:10ms}") Duration offerTimeout,
+                              @Value("${kismet.swipes.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.shutdownTimeoutMillis = shutdownTimeout.toMillis();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "swipe-write-behind");
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        writerThread.join(shutdownTimeoutMillis);
+        if (writerThread.isAlive()) {
+            log.error("Swipe writer did not drain within {} ms, flushing the remaining {} swipes on shutdown",
+                    shutdownTimeoutMillis, queue.size());
+            writerThread.interrupt();
+            writerThread.join(shutdownTimeoutMillis);
+        }
+        // The writer may have died on an unexpected error; whatever it left in the queue is still written
+        List<PendingSwipe> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flush(remaining);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Returns false once stopped (or when the queue stays full), and the caller writes the swipe itself
+    public boolean enqueue(Long actorId, Long targetId, ActionType action) {
+        runningLock.readLock().lock();
+        try {
+            if (!running) {
+                return false;
+            }
+            PendingSwipe swipe = new PendingSwipe(actorId, targetId, action);
+            markPending(swipe);
+            boolean queued = false;
+            try {
+                queued = queue.offer(swipe, offerTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!queued) {
+                clearPending(swipe);
+            }
+            return queued;
+        } finally {
+            runningLock.readLock().unlock();
+        }
+    }
+
+    public List<Long> pendingTargets(Long actorId) {
+        List<Long> targets = new ArrayList<>();
+        pendingByActor.computeIfPresent(actorId, (actor, pending) -> {
+            targets.addAll(pending);
+            return pending;
+        });
+        return targets;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void runWriter() {
+        List<PendingSwipe> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSwipe first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingSwipe next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                flush(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingSwipe> batch) {
+        try {
+            write(batch);
+        } finally {
+            batch.forEach(this::clearPending);
+        }
+    }
+
+    private void write(List<PendingSwipe> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; attempt <= MAX_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                insert(batch);
+                return;
+            } catch (DataAccessException e) {
+                log.warn("Failed to flush {} swipes (attempt {}/{})", batch.size(), attempt, MAX_FLUSH_ATTEMPTS, e);
+            }
+        }
+
+        for (PendingSwipe swipe : batch) {
+            try {
+                insert(List.of(swipe));
+            } catch (DataAccessException e) {
+                log.error("Dropping swipe {} after repeated flush failures", swipe, e);
+            }
+        }
+    }
+
+    private void markPending(PendingSwipe swipe) {
+        pendingByActor.compute(swipe.actorId(), (actor, pending) -> {
+            List<Long> targets = pending == null ? new ArrayList<>(2) : pending;
+            targets.add(swipe.targetId());
+            return targets;
+        });
+    }
+
+    private void clearPending(PendingSwipe swipe) {
+        pendingByActor.computeIfPresent(swipe.actorId(), (actor, pending) -> {
+            pending.remove(swipe.targetId());
+            return pending.isEmpty() ? null : pending;
+        });
+    }
+
+    private void insert(List<PendingSwipe> batch) {
+        StringBuilder sql = new StringBuilder("INSERT INTO match_actions (actor_id, target_id, action) VALUES ");
+        Object[] args = new Object[batch.size() * 3];
+        for (int i = 0; i < batch.size(); i++) {
+            PendingSwipe swipe = batch.get(i);
+            sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+            args[i * 3] = swipe.actorId();
+            args[i * 3 + 1] = swipe.targetId();
+            args[i * 3 + 2] = swipe.action().name();
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private record PendingSwipe(Long actorId, Long targetId, ActionType action) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.nathandekeyrel.kismet.profile.PromptType;
+import com.github.nathandekeyrel.kismet.user.Gender;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record CandidateCard(Long id, String firstName, String lastName, LocalDate dateOfBirth, Gender gender,
+                            Long profileId, Long profileVersion, String bio, List<Answer> answers) {
+
+    public record Answer(PromptType promptType, String answerText) {
+    }
+}
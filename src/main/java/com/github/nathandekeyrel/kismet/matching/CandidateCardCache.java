@@ -0,0 +1,62 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.nathandekeyrel.kismet.profile.ProfileUpdatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+public class CandidateCardCache {
+
+    private final CandidateCardRepository candidateCardRepository;
+    private final Cache<Long, CandidateCard> cards;
+
+    public CandidateCardCache(CandidateCardRepository candidateCardRepository, MeterRegistry meterRegistry,
+                              @Value("${kismet.cards.cache.max-size:10000}") long maxSize,
+                              @Value("${kismet.cards.cache.ttl:PT5M}") Duration ttl) {
+        this.candidateCardRepository = candidateCardRepository;
+        this.cards = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cards, "candidateCards");
+    }
+
+    public Optional<CandidateCard> get(Long userId) {
+        List<CandidateCard> found = getAll(List.of(userId));
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.getFirst());
+    }
+
+    public List<CandidateCard> getAll(List<Long> userIds) {
+        Map<Long, CandidateCard> found = cards.getAll(userIds,
+                missing -> candidateCardRepository.findByIds(List.copyOf(missing)));
+        List<CandidateCard> ordered = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            CandidateCard card = found.get(userId);
+            if (card != null) {
+                ordered.add(card);
+            }
+        }
+        return ordered;
+    }
+
+    public void invalidate(Long userId) {
+        cards.invalidate(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileUpdated(ProfileUpdatedEvent event) {
+        invalidate(event.userId());
+    }
+}
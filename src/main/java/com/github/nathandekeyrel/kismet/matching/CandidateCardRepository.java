@@ -0,0 +1,75 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.nathandekeyrel.kismet.matching.CandidateCard.Answer;
+import com.github.nathandekeyrel.kismet.profile.PromptType;
+import com.github.nathandekeyrel.kismet.user.Gender;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+public class CandidateCardRepository {
+
+    private static final String CARDS_QUERY =
+            "SELECT u.id, u.first_name, u.last_name, u.date_of_birth, u.gender, p.id, p.version, p.bio, a.prompt_type, a.answer_text " +
+            "FROM users u LEFT JOIN profiles p ON p.user_id = u.id " +
+            "LEFT JOIN profile_answers a ON a.profile_id = p.id WHERE u.id IN (%s) ORDER BY u.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CandidateCardRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<CandidateCard> findById(Long userId) {
+        return Optional.ofNullable(findByIds(List.of(userId)).get(userId));
+    }
+
+    public Map<Long, CandidateCard> findByIds(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(userIds.size(), "?"));
+        return jdbcTemplate.query(CARDS_QUERY.formatted(placeholders), this::toCards, userIds.toArray());
+    }
+
+    private Map<Long, CandidateCard> toCards(ResultSet resultSet) throws SQLException {
+        Map<Long, CandidateCard> cards = new HashMap<>();
+        boolean hasRow = resultSet.next();
+        while (hasRow) {
+            long id = resultSet.getLong(1);
+            String firstName = resultSet.getString(2);
+            String lastName = resultSet.getString(3);
+            LocalDate dateOfBirth = resultSet.getObject(4, LocalDate.class);
+            Gender gender = Gender.valueOf(resultSet.getString(5));
+            Long profileId = resultSet.getObject(6, Long.class);
+            Long profileVersion = resultSet.getObject(7, Long.class);
+            String bio = resultSet.getString(8);
+
+            List<Answer> answers = new ArrayList<>();
+            do {
+                String promptType = resultSet.getString(9);
+                if (promptType != null) {
+                    answers.add(new Answer(PromptType.valueOf(promptType), resultSet.getString(10)));
+                }
+                hasRow = resultSet.next();
+            } while (hasRow && resultSet.getLong(1) == id);
+            answers.sort(Comparator.comparing(answer -> answer.promptType().ordinal()));
+
+            cards.put(id, new CandidateCard(id, firstName, lastName, dateOfBirth, gender, profileId, profileVersion,
+                    bio, List.copyOf(answers)));
+        }
+        return cards;
+    }
+}
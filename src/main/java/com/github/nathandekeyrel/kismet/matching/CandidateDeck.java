@@ -0,0 +1,247 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.nathandekeyrel.kismet.friendship.BlockList;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class CandidateDeck {
+
+    private static final Logger log = LoggerFactory.getLogger(CandidateDeck.class);
+
+    private final UserService userService;
+    private final SwipeHistoryIndex swipeHistoryIndex;
+    private final BlockList blockList;
+    private final CandidateRanker candidateRanker;
+    private final int capacity;
+    private final int rankPoolSize;
+    private final int scanSize;
+    private final int maxScanPages;
+    private final int lowWatermark;
+    private final long idleTimeoutMillis;
+    private final long exhaustedBackoffMillis;
+
+    private final Map<Long, Deck> decks = new ConcurrentHashMap<>();
+    private final ExecutorService refillExecutor;
+
+    public CandidateDeck(UserService userService, SwipeHistoryIndex swipeHistoryIndex, BlockList blockList,
+                         CandidateRanker candidateRanker,
+                         @Value("${kismet.deck.size:100}") int capacity,
+                         @Value("${kismet.deck.rank-pool-size:1000}") int rankPoolSize,
+                         @Value("${kismet.deck.scan-size:500}") int scanSize,
+                         @Value("${kismet.deck.max-scan-pages:20}") int maxScanPages,
+                         @Value("${kismet.deck.refill-threads:2}") int refillThreads,
+                         @Value("${kismet.deck.idle-timeout:PT30M}") Duration idleTimeout,
+                         @Value("${kismet.deck.exhausted-backoff:PT1M}") Duration exhaustedBackoff) {
+        this.userService = userService;
+        this.swipeHistoryIndex = swipeHistoryIndex;
+        this.blockList = blockList;
+        this.candidateRanker = candidateRanker;
+        this.capacity = capacity;
+        this.rankPoolSize = Math.max(capacity, rankPoolSize);
+        this.scanSize = scanSize;
+        this.maxScanPages = maxScanPages;
+        this.lowWatermark = Math.max(1, capacity / 4);
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.exhaustedBackoffMillis = exhaustedBackoff.toMillis();
+        this.refillExecutor = Executors.newFixedThreadPool(refillThreads, runnable -> {
+            Thread thread = new Thread(runnable, "candidate-deck-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Optional<Long> peek(Long userId) {
+        return peek(userId, 1, Set.of()).stream().findFirst();
+    }
+
+    public List<Long> peek(Long userId, int count, Set<Long> exclude) {
+        Deck deck = decks.computeIfAbsent(userId, id -> new Deck());
+        int windowSize = count + exclude.size();
+        List<Long> heads = new ArrayList<>(count);
+        while (true) {
+            List<Long> window = new ArrayList<>(windowSize);
+            synchronized (deck) {
+                deck.lastAccess = System.currentTimeMillis();
+                for (Long candidateId : deck.ids) {
+                    if (window.size() == windowSize) {
+                        break;
+                    }
+                    window.add(candidateId);
+                }
+            }
+
+            heads.clear();
+            List<Long> stale = new ArrayList<>();
+            for (Long candidateId : window) {
+                if (exclude.contains(candidateId)) {
+                    continue;
+                }
+                if (swipeHistoryIndex.hasSwiped(userId, candidateId) || blockList.isBlocked(userId, candidateId)) {
+                    stale.add(candidateId);
+                } else if (heads.size() < count) {
+                    heads.add(candidateId);
+                }
+            }
+            if (!stale.isEmpty()) {
+                synchronized (deck) {
+                    stale.forEach(deck.ids::remove);
+                }
+            }
+            if (stale.isEmpty() || heads.size() >= count) {
+                break;
+            }
+        }
+        maybeRefill(userId, deck);
+        return heads;
+    }
+
+    public boolean isExhausted(Long userId) {
+        Deck deck = decks.get(userId);
+        if (deck == null) {
+            return false;
+        }
+        synchronized (deck) {
+            return deck.ids.isEmpty() && deck.exhaustedUntil > System.currentTimeMillis();
+        }
+    }
+
+    public void remove(Long userId, Long candidateId) {
+        Deck deck = decks.get(userId);
+        if (deck == null) {
+            return;
+        }
+        synchronized (deck) {
+            deck.ids.remove(candidateId);
+        }
+        maybeRefill(userId, deck);
+    }
+
+    public void evict(Long userId) {
+        decks.remove(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${kismet.deck.eviction-interval:PT5M}")
+    public void evictIdleDecks() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        decks.entrySet().removeIf(entry -> entry.getValue().lastAccess < cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refillExecutor.shutdownNow();
+    }
+
+    private void maybeRefill(Long userId, Deck deck) {
+        synchronized (deck) {
+            if (deck.refilling || deck.ids.size() >= lowWatermark
+                    || deck.exhaustedUntil > System.currentTimeMillis()) {
+                return;
+            }
+            deck.refilling = true;
+        }
+        try {
+            refillExecutor.execute(() -> refill(userId, deck));
+        } catch (RejectedExecutionException e) {
+            synchronized (deck) {
+                deck.refilling = false;
+            }
+        }
+    }
+
+    private void refill(Long userId, Deck deck) {
+        try {
+            int wanted;
+            long cursor;
+            synchronized (deck) {
+                wanted = capacity - deck.ids.size();
+                cursor = deck.cursor;
+            }
+            if (cursor < 0) {
+                cursor = randomStartingPoint();
+            }
+
+            long start = cursor;
+            boolean wrapped = false;
+            boolean cycleComplete = false;
+            int poolSize = Math.max(wanted, rankPoolSize);
+            List<Long> batch = new ArrayList<>(poolSize);
+            for (int page = 0; page < maxScanPages && batch.size() < poolSize; page++) {
+                List<Long> ids = userService.getUserIdsAfter(cursor, scanSize);
+                for (Long candidateId : ids) {
+                    if (!candidateId.equals(userId) && !swipeHistoryIndex.hasSwiped(userId, candidateId)
+                            && !blockList.isBlocked(userId, candidateId)) {
+                        batch.add(candidateId);
+                    }
+                }
+                if (!ids.isEmpty()) {
+                    cursor = ids.getLast();
+                }
+                if (wrapped && cursor >= start) {
+                    cycleComplete = true;
+                    break;
+                }
+                if (ids.size() < scanSize) {
+                    if (wrapped) {
+                        cycleComplete = true;
+                        break;
+                    }
+                    wrapped = true;
+                    cursor = 0L;
+                }
+            }
+            List<Long> ranked = batch.isEmpty() ? batch : candidateRanker.rank(userId, batch);
+
+            synchronized (deck) {
+                deck.cursor = cursor;
+                int before = deck.ids.size();
+                for (Long candidateId : ranked) {
+                    if (deck.ids.size() >= capacity) {
+                        break;
+                    }
+                    deck.ids.add(candidateId);
+                }
+                if (cycleComplete && deck.ids.size() == before) {
+                    deck.exhaustedUntil = System.currentTimeMillis() + exhaustedBackoffMillis;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to refill candidate deck for user {}", userId, e);
+        } finally {
+            synchronized (deck) {
+                deck.refilling = false;
+            }
+        }
+    }
+
+    private long randomStartingPoint() {
+        long maxId = userService.getMaxUserId();
+        return maxId <= 0 ? 0L : ThreadLocalRandom.current().nextLong(maxId);
+    }
+
+    private static final class Deck {
+        private final LinkedHashSet<Long> ids = new LinkedHashSet<>();
+        private long cursor = -1L;
+        private boolean refilling;
+        private long exhaustedUntil;
+        private volatile long lastAccess = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import java.util.List;
+
+public interface CandidateRanker {
+    List<Long> rank(Long userId, List<Long> candidateIds);
+}
@@ -0,0 +1,110 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.nathandekeyrel.kismet.matching.ProfileFeatureIndex.ProfileFeatures;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+@Component
+@ConditionalOnProperty(name = "kismet.deck.ranker", havingValue = "compatibility")
+public class CompatibilityCandidateRanker implements CandidateRanker {
+
+    private static final double ANSWER_WEIGHT = 0.6;
+    private static final double BIO_WEIGHT = 0.25;
+    private static final double RECENCY_WEIGHT = 0.15;
+    private static final double RECENCY_HALF_LIFE_MILLIS = 14 * 24 * 60 * 60 * 1000.0;
+    private static final double JITTER = 0.01;
+
+    private final ProfileFeatureIndex profileFeatureIndex;
+    private final int parallelThreshold;
+    private final ForkJoinPool scoringPool;
+
+    public CompatibilityCandidateRanker(ProfileFeatureIndex profileFeatureIndex,
+                                        @Value("${kismet.ranker.parallel-threshold:512}") int parallelThreshold,
+                                        @Value("${kismet.ranker.parallelism:0}") int parallelism) {
+        this.profileFeatureIndex = profileFeatureIndex;
+        this.parallelThreshold = parallelThreshold;
+        this.scoringPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scoringPool.shutdownNow();
+    }
+
+    @Override
+    public List<Long> rank(Long userId, List<Long> candidateIds) {
+        int size = candidateIds.size();
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = candidateIds.get(i);
+        }
+
+        ProfileFeatures viewer = profileFeatureIndex.get(userId);
+        long now = System.currentTimeMillis();
+        double[] scores = new double[size];
+        if (size >= parallelThreshold) {
+            scoringPool.submit(() -> IntStream.range(0, size).parallel()
+                    .forEach(i -> scores[i] = score(viewer, ids[i], now))).join();
+        } else {
+            for (int i = 0; i < size; i++) {
+                scores[i] = score(viewer, ids[i], now);
+            }
+        }
+
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        List<Long> ranked = new ArrayList<>(size);
+        for (Integer index : order) {
+            ranked.add(ids[index]);
+        }
+        return ranked;
+    }
+
+    double score(ProfileFeatures viewer, long candidateId, long now) {
+        double score = ThreadLocalRandom.current().nextDouble(JITTER);
+        ProfileFeatures candidate = profileFeatureIndex.get(candidateId);
+        if (candidate == null) {
+            return score;
+        }
+        if (viewer != null) {
+            score += ANSWER_WEIGHT * dot(viewer.answers(), candidate.answers());
+            score += BIO_WEIGHT * dot(viewer.bio(), candidate.bio());
+        }
+        if (candidate.updatedAtMillis() > 0) {
+            double age = Math.max(0, now - candidate.updatedAtMillis());
+            score += RECENCY_WEIGHT * Math.pow(0.5, age / RECENCY_HALF_LIFE_MILLIS);
+        }
+        return score;
+    }
+
+    private static double dot(int[] left, int[] right) {
+        long sum = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            int leftDimension = ProfileFeatureIndex.dimension(left[i]);
+            int rightDimension = ProfileFeatureIndex.dimension(right[j]);
+            if (leftDimension < rightDimension) {
+                i++;
+            } else if (leftDimension > rightDimension) {
+                j++;
+            } else {
+                sum += ProfileFeatureIndex.weight(left[i++]) * ProfileFeatureIndex.weight(right[j++]);
+            }
+        }
+        return sum / (double) (ProfileFeatureIndex.QUANTIZATION_SCALE * ProfileFeatureIndex.QUANTIZATION_SCALE);
+    }
+}
@@ -0,0 +1,210 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.nathandekeyrel.kismet.common.ConcurrentLongHashSet;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class LikeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeIndex.class);
+
+    // Only likes still waiting for the other side; once a pair matches neither direction is kept
+    private static final String UNRESOLVED = "a.action = 'LIKE' AND NOT EXISTS (SELECT 1 FROM mutual_matches m " +
+            "WHERE m.user_one_id = LEAST(a.actor_id, a.target_id) " +
+            "AND m.user_two_id = GREATEST(a.actor_id, a.target_id))";
+    // Full loads drop matched pairs in memory: probing mutual_matches once per like is far slower than two scans
+    private static final String LIKES_QUERY = "SELECT actor_id, target_id FROM match_actions WHERE action = 'LIKE'";
+    private static final String MATCHED_PAIRS_QUERY = "SELECT user_one_id, user_two_id FROM mutual_matches";
+    private static final String RECENT_LIKES_QUERY =
+            "SELECT a.actor_id, a.target_id FROM match_actions a WHERE a.id > ? AND a.id <= ? AND " + UNRESOLVED;
+    private static final String MAX_ACTION_ID_QUERY = "SELECT COALESCE(MAX(id), 0) FROM match_actions";
+    private static final String UNMATCHED_PAIRS_QUERY =
+            "SELECT a.actor_id, a.target_id FROM match_actions a " +
+            "JOIN match_actions b ON b.actor_id = a.target_id AND b.target_id = a.actor_id AND b.action = 'LIKE' " +
+            "WHERE a.action = 'LIKE' AND a.actor_id < a.target_id AND NOT EXISTS (SELECT 1 FROM mutual_matches m " +
+            "WHERE m.user_one_id = a.actor_id AND m.user_two_id = a.target_id)";
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MutualMatchRepository mutualMatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConcurrentLongHashSet likes = new ConcurrentLongHashSet();
+
+    private volatile boolean ready;
+    // Each refresh reads the ids after the one before last, so a row committed just behind a newer id is still seen
+    private long refreshedFromId;
+    private long refreshedToId;
+    // Likes without a row in the previous check; a second miss means a rolled-back write, not a queued one
+    private ConcurrentLongHashSet unbacked = new ConcurrentLongHashSet();
+
+    public LikeIndex(JdbcTemplate jdbcTemplate, MutualMatchRepository mutualMatchRepository,
+                     ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mutualMatchRepository = mutualMatchRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public static long pairKey(long actorId, long targetId) {
+        return ((long) Math.toIntExact(actorId) << 32) | (Math.toIntExact(targetId) & 0xFFFFFFFFL);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void add(Long actorId, Long targetId) {
+        likes.add(pairKey(actorId, targetId));
+    }
+
+    public boolean contains(Long actorId, Long targetId) {
+        return likes.contains(pairKey(actorId, targetId));
+    }
+
+    public void resolve(Long userId, Long otherUserId) {
+        likes.remove(pairKey(userId, otherUserId));
+        likes.remove(pairKey(otherUserId, userId));
+    }
+
+    public long size() {
+        return likes.size();
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        long maxId = maxActionId();
+        ConcurrentLongHashSet unresolved = loadUnresolvedLikes();
+        unresolved.forEach(likes::add);
+        refreshedFromId = maxId;
+        refreshedToId = maxId;
+        ready = true;
+        log.info("Loaded {} unresolved likes into the like index in {} ms", unresolved.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    // Likes recorded on other nodes; a pair both nodes missed on their hot paths is matched here
+    @Scheduled(fixedDelayString = "${kismet.likes.refresh-interval:PT5S}",
+               initialDelayString = "${kismet.likes.refresh-interval:PT5S}")
+    @Transactional
+    public synchronized void refresh() {
+        if (!ready) {
+            return;
+        }
+        long maxId = maxActionId();
+        List<long[]> recent = jdbcTemplate.query(RECENT_LIKES_QUERY,
+                (resultSet, row) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)}, refreshedFromId, maxId);
+        int created = 0;
+        for (long[] like : recent) {
+            likes.add(pairKey(like[0], like[1]));
+            if (likes.contains(pairKey(like[1], like[0])) && match(like[0], like[1])) {
+                created++;
+            }
+        }
+        refreshedFromId = refreshedToId;
+        refreshedToId = maxId;
+        if (created > 0) {
+            log.info("Created {} matches from likes recorded on other nodes", created);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kismet.likes.consistency-check-interval:PT1H}",
+               initialDelayString = "${kismet.likes.consistency-check-interval:PT1H}")
+    @Transactional
+    public synchronized void verify() {
+        if (!ready) {
+            return;
+        }
+        ConcurrentLongHashSet persisted = loadUnresolvedLikes();
+        AtomicLong missing = new AtomicLong();
+        persisted.forEach(pair -> {
+            if (likes.add(pair)) {
+                missing.incrementAndGet();
+            }
+        });
+
+        List<Long> phantoms = new ArrayList<>();
+        ConcurrentLongHashSet stillUnbacked = new ConcurrentLongHashSet();
+        likes.forEach(pair -> {
+            if (!persisted.contains(pair)) {
+                if (unbacked.contains(pair)) {
+                    phantoms.add(pair);
+                } else {
+                    stillUnbacked.add(pair);
+                }
+            }
+        });
+        phantoms.forEach(likes::remove);
+        unbacked = stillUnbacked;
+
+        // Reciprocal likes recorded on other nodes, or missed while the index was short an entry, never matched
+        List<long[]> unmatched = jdbcTemplate.query(UNMATCHED_PAIRS_QUERY,
+                (resultSet, row) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)});
+        int created = 0;
+        for (long[] pair : unmatched) {
+            if (match(pair[0], pair[1])) {
+                created++;
+            }
+        }
+
+        if (missing.get() > 0 || !phantoms.isEmpty() || created > 0) {
+            log.warn("Like index repaired: {} likes added, {} without a row removed, {} missed matches created",
+                    missing.get(), phantoms.size(), created);
+        }
+        if (stillUnbacked.size() > 0) {
+            log.info("Like index holds {} likes not yet visible in match_actions", stillUnbacked.size());
+        }
+    }
+
+    private boolean match(long actorId, long targetId) {
+        long userOneId = Math.min(actorId, targetId);
+        long userTwoId = Math.max(actorId, targetId);
+        resolve(actorId, targetId);
+        if (mutualMatchRepository.insertIfAbsent(userOneId, userTwoId) > 0) {
+            eventPublisher.publishEvent(new MutualMatchCreatedEvent(userOneId, userTwoId));
+            return true;
+        }
+        return false;
+    }
+
+    private long maxActionId() {
+        return jdbcTemplate.queryForObject(MAX_ACTION_ID_QUERY, Long.class);
+    }
+
+    private ConcurrentLongHashSet loadUnresolvedLikes() {
+        ConcurrentLongHashSet unresolved = new ConcurrentLongHashSet();
+        stream(LIKES_QUERY, (actorId, targetId) -> unresolved.add(pairKey(actorId, targetId)));
+        stream(MATCHED_PAIRS_QUERY, (userOneId, userTwoId) -> {
+            unresolved.remove(pairKey(userOneId, userTwoId));
+            unresolved.remove(pairKey(userTwoId, userOneId));
+        });
+        return unresolved;
+    }
+
+    private void stream(String query, PairConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(query);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getLong(1), resultSet.getLong(2)));
+    }
+
+    @FunctionalInterface
+    private interface PairConsumer {
+        void accept(long firstId, long secondId);
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.nathandekeyrel.kismet.friendship.BlockList;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class LikedYouLane {
+
+    private final MatchActionRepository matchActionRepository;
+    private final SwipeHistoryIndex swipeHistoryIndex;
+    private final BlockList blockList;
+    private final int capacity;
+    private final int interval;
+    private final long idleTimeoutMillis;
+
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    public LikedYouLane(MatchActionRepository matchActionRepository, SwipeHistoryIndex swipeHistoryIndex,
+                        BlockList blockList,
+                        @Value("${kismet.deck.liked-you.capacity:200}") int capacity,
+                        @Value("${kismet.deck.liked-you.interval:2}") int interval,
+                        @Value("${kismet.deck.idle-timeout:PT30M}") Duration idleTimeout) {
+        this.matchActionRepository = matchActionRepository;
+        this.swipeHistoryIndex = swipeHistoryIndex;
+        this.blockList = blockList;
+        this.capacity = capacity;
+        this.interval = Math.max(1, interval);
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+    }
+
+    public Optional<Long> peek(Long userId) {
+        Lane lane = lane(userId);
+        synchronized (lane) {
+            lane.lastAccess = System.currentTimeMillis();
+            if (lane.swipesSinceLaneCard < interval - 1) {
+                return Optional.empty();
+            }
+            return pendingLikers(userId, lane, 1, Set.of()).stream().findFirst();
+        }
+    }
+
+    public List<Long> interleave(Long userId, List<Long> regularIds, int count, Set<Long> exclude) {
+        Lane lane = lane(userId);
+        List<Long> likers;
+        int swipesSinceLaneCard;
+        synchronized (lane) {
+            lane.lastAccess = System.currentTimeMillis();
+            likers = pendingLikers(userId, lane, count, exclude);
+            swipesSinceLaneCard = lane.swipesSinceLaneCard;
+        }
+
+        List<Long> ids = new ArrayList<>(count);
+        Set<Long> chosen = new HashSet<>(exclude);
+        int nextLiker = 0;
+        int nextRegular = 0;
+        while (ids.size() < count && (nextLiker < likers.size() || nextRegular < regularIds.size())) {
+            boolean likerTurn = nextLiker < likers.size()
+                    && (swipesSinceLaneCard >= interval - 1 || nextRegular >= regularIds.size());
+            Long id = likerTurn ? likers.get(nextLiker++) : regularIds.get(nextRegular++);
+            if (chosen.add(id)) {
+                ids.add(id);
+                swipesSinceLaneCard = likerTurn ? 0 : swipesSinceLaneCard + 1;
+            }
+        }
+        return ids;
+    }
+
+    public void recordLike(Long actorId, Long targetId) {
+        Lane lane = lanes.get(targetId);
+        if (lane == null) {
+            return;
+        }
+        synchronized (lane) {
+            if (lane.likerIds.size() < capacity) {
+                lane.likerIds.add(actorId);
+            }
+        }
+    }
+
+    public void recordSwipe(Long actorId, Long targetId) {
+        Lane lane = lanes.get(actorId);
+        if (lane == null) {
+            return;
+        }
+        synchronized (lane) {
+            if (lane.likerIds.remove(targetId)) {
+                lane.swipesSinceLaneCard = 0;
+            } else {
+                lane.swipesSinceLaneCard++;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kismet.deck.eviction-interval:PT5M}")
+    public void evictIdleLanes() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        lanes.entrySet().removeIf(entry -> entry.getValue().lastAccess < cutoff);
+    }
+
+    private List<Long> pendingLikers(Long userId, Lane lane, int limit, Set<Long> exclude) {
+        List<Long> likers = new ArrayList<>(Math.min(limit, lane.likerIds.size()));
+        Iterator<Long> iterator = lane.likerIds.iterator();
+        while (iterator.hasNext() && likers.size() < limit) {
+            Long likerId = iterator.next();
+            if (swipeHistoryIndex.hasSwiped(userId, likerId) || blockList.isBlocked(userId, likerId)) {
+                iterator.remove();
+            } else if (!exclude.contains(likerId)) {
+                likers.add(likerId);
+            }
+        }
+        return likers;
+    }
+
+    private Lane lane(Long userId) {
+        Lane lane = lanes.get(userId);
+        if (lane != null) {
+            return lane;
+        }
+        Lane created = new Lane(interval);
+        lane = lanes.putIfAbsent(userId, created);
+        if (lane != null) {
+            return lane;
+        }
+
+        List<Long> pending = matchActionRepository.findPendingLikerIds(userId, capacity);
+        synchronized (created) {
+            LinkedHashSet<Long> recent = new LinkedHashSet<>(created.likerIds);
+            created.likerIds.clear();
+            created.likerIds.addAll(pending);
+            for (Long likerId : recent) {
+                if (created.likerIds.size() < capacity) {
+                    created.likerIds.add(likerId);
+                }
+            }
+        }
+        return created;
+    }
+
+    private static final class Lane {
+        private final LinkedHashSet<Long> likerIds = new LinkedHashSet<>();
+        private int swipesSinceLaneCard;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Lane(int interval) {
+            this.swipesSinceLaneCard = interval - 1;
+        }
+    }
+}
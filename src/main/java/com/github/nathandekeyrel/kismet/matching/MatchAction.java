@@ -10,7 +10,7 @@ import lombok.ToString;
 @EqualsAndHashCode(callSuper = true)
 @Data
 @Entity
-@Table(name = "match_actions")
+@Table(name = "match_actions", indexes = @Index(columnList = "actor_id, target_id"))
 public class MatchAction extends Model {
     @ManyToOne
     @JoinColumn(name = "actor_id",  nullable = false)
@@ -2,9 +2,20 @@ package com.github.nathandekeyrel.kismet.matching;
 
 import com.github.nathandekeyrel.kismet.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface MatchActionRepository extends JpaRepository<MatchAction, Long> {
     Optional<MatchAction> findByUserAndTarget(User user1, User user2);
+
+    @Query("SELECT ma.target.id FROM MatchAction ma WHERE ma.user.id = :actorId")
+    List<Long> findTargetIdsByActorId(@Param("actorId") Long actorId);
+
+    @Query(value = "SELECT ma.actor_id FROM match_actions ma WHERE ma.target_id = :userId AND ma.action = 'LIKE' " +
+                   "AND NOT EXISTS (SELECT 1 FROM match_actions r WHERE r.actor_id = :userId AND r.target_id = ma.actor_id) " +
+                   "ORDER BY ma.id LIMIT :limit", nativeQuery = true)
+    List<Long> findPendingLikerIds(@Param("userId") Long userId, @Param("limit") int limit);
 }
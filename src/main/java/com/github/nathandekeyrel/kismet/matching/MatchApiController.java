@@ -0,0 +1,83 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class MatchApiController {
+
+    private static final int DEFAULT_CARD_COUNT = 5;
+
+    private final UserService userService;
+    private final MatchService matchService;
+    private final int prefetchMax;
+    private final int bufferedMax;
+
+    public MatchApiController(UserService userService, MatchService matchService,
+                              @Value("${kismet.deck.prefetch-max:20}") int prefetchMax,
+                              @Value("${kismet.deck.buffered-max:100}") int bufferedMax) {
+        this.userService = userService;
+        this.matchService = matchService;
+        this.prefetchMax = prefetchMax;
+        this.bufferedMax = bufferedMax;
+    }
+
+    @GetMapping("/cards")
+    public List<CandidateCard> getCards(@RequestParam(required = false) Integer count,
+                                        @RequestParam(required = false) List<Long> exclude, Principal principal) {
+        checkBuffered(exclude);
+        User currentUser = userService.getCurrentUser(principal);
+        return matchService.nextCards(currentUser, cardCount(count), exclude);
+    }
+
+    @PostMapping("/swipes")
+    public SwipeResult swipe(@RequestBody SwipeRequest request, Principal principal) {
+        if (request.targetId() == null || request.action() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "targetId and action are required");
+        }
+        checkBuffered(request.buffered());
+        User currentUser = userService.getCurrentUser(principal);
+        if (request.targetId().equals(currentUser.getId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot swipe on yourself");
+        }
+        User targetUser = userService.findUserReference(request.targetId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        boolean matched = matchService.recordAction(currentUser, targetUser, request.action());
+        List<CandidateCard> cards = request.count() != null && request.count() == 0
+                ? List.of()
+                : matchService.nextCards(currentUser, cardCount(request.count()), request.buffered());
+        return new SwipeResult(matched, cards);
+    }
+
+    @GetMapping("/matches")
+    public MatchPage getMatches(@RequestParam(required = false) Long before,
+                                @RequestParam(required = false) Integer size, Principal principal) {
+        User currentUser = userService.getCurrentUser(principal);
+        return matchService.getMatches(currentUser, before, size);
+    }
+
+    // Every buffered id widens the window CandidateDeck.peek scans
+    private void checkBuffered(List<Long> buffered) {
+        if (buffered != null && buffered.size() > bufferedMax) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + bufferedMax + " buffered cards");
+        }
+    }
+
+    private int cardCount(Integer count) {
+        return count == null ? Math.min(DEFAULT_CARD_COUNT, prefetchMax) : Math.clamp(count, 1, prefetchMax);
+    }
+}
@@ -1,6 +1,6 @@
 package com.github.nathandekeyrel.kismet.matching;
 
-import com.github.nathandekeyrel.kismet.profile.ProfileService;
+import com.github.nathandekeyrel.kismet.profile.ProfileCardRenderer;
 import com.github.nathandekeyrel.kismet.user.User;
 import com.github.nathandekeyrel.kismet.user.UserService;
 import org.springframework.stereotype.Controller;
@@ -10,7 +10,6 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.security.Principal;
-import java.util.List;
 import java.util.Optional;
 
 @Controller
@@ -18,12 +17,13 @@ public class MatchController {
 
     private final UserService userService;
     private final MatchService matchService;
-    private final ProfileService profileService;
+    private final ProfileCardRenderer profileCardRenderer;
 
-    public MatchController(UserService userService, MatchService matchService, ProfileService profileService) {
+    public MatchController(UserService userService, MatchService matchService,
+                           ProfileCardRenderer profileCardRenderer) {
         this.userService = userService;
         this.matchService = matchService;
-        this.profileService = profileService;
+        this.profileCardRenderer = profileCardRenderer;
     }
 
     @GetMapping("/")
@@ -35,12 +35,14 @@ public class MatchController {
     public String showMatchDeck(Model model, Principal principal) {
         User currentUser = userService.getCurrentUser(principal);
 
-        Optional<User> potentialMatch = matchService.findPotentialMatch(currentUser);
-        if (potentialMatch.isPresent()) {
-            User match = potentialMatch.get();
-            match.setProfile(profileService.getByUser(match));
-            model.addAttribute("potentialMatch", match);
-        }
+        Optional<CandidateCard> potentialMatch = matchService.findPotentialMatch(currentUser);
+        potentialMatch.ifPresent(card -> {
+            model.addAttribute("potentialMatch", card);
+            if (card.profileId() != null) {
+                model.addAttribute("potentialMatchCard", profileCardRenderer.render(ProfileCardRenderer.CANDIDATE,
+                        card.profileId(), card.profileVersion(), card.bio(), card.answers()));
+            }
+        });
 
         return "home";
     }
@@ -68,11 +70,12 @@ public class MatchController {
     }
 
     @GetMapping("/matches")
-    public String showMatchesPage(Model model, Principal principal) {
+    public String showMatchesPage(@RequestParam(required = false) Long before, Model model, Principal principal) {
         User currentUser = userService.getCurrentUser(principal);
 
-        List<User> matchedUsers = matchService.getMatchedUsersFor(currentUser);
-        model.addAttribute("matches", matchedUsers);
+        MatchPage page = matchService.getMatches(currentUser, before, null);
+        model.addAttribute("matches", page.matches());
+        model.addAttribute("nextCursor", page.nextCursor());
 
         return "matches";
     }
@@ -2,63 +2,180 @@ package com.github.nathandekeyrel.kismet.matching;
 
 import com.github.nathandekeyrel.kismet.user.User;
 import com.github.nathandekeyrel.kismet.user.UserService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed(value = "kismet.service", histogram = true)
 public class MatchService {
 
     private final UserService userService;
     private final MatchActionRepository matchActionRepository;
     private final MutualMatchRepository mutualMatchRepository;
+    private final CandidateDeck candidateDeck;
+    private final SwipeHistoryIndex swipeHistoryIndex;
+    private final BatchedSwipeWriter batchedSwipeWriter;
+    private final LikeIndex likeIndex;
+    private final CandidateCardCache candidateCardCache;
+    private final LikedYouLane likedYouLane;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int matchesPageSize;
+    private final int matchesMaxPageSize;
+    private final Map<ActionType, Counter> swipes = new EnumMap<>(ActionType.class);
+    private final Counter matchesCreated;
+    private final Counter cardsServed;
+    private final Counter deckEmpty;
 
-    public MatchService(UserService userService, MatchActionRepository matchActionRepository, MutualMatchRepository mutualMatchRepository) {
+    public MatchService(UserService userService, MatchActionRepository matchActionRepository,
+                        MutualMatchRepository mutualMatchRepository, CandidateDeck candidateDeck,
+                        SwipeHistoryIndex swipeHistoryIndex, BatchedSwipeWriter batchedSwipeWriter,
+                        LikeIndex likeIndex, CandidateCardCache candidateCardCache,
+                        LikedYouLane likedYouLane, ApplicationEventPublisher eventPublisher,
+                        MeterRegistry meterRegistry,
+                        @Value("${kismet.matches.page-size:50}") int matchesPageSize,
+                        @Value("${kismet.matches.max-page-size:200}") int matchesMaxPageSize) {
         this.userService = userService;
         this.matchActionRepository = matchActionRepository;
         this.mutualMatchRepository = mutualMatchRepository;
+        this.candidateDeck = candidateDeck;
+        this.swipeHistoryIndex = swipeHistoryIndex;
+        this.batchedSwipeWriter = batchedSwipeWriter;
+        this.likeIndex = likeIndex;
+        this.candidateCardCache = candidateCardCache;
+        this.likedYouLane = likedYouLane;
+        this.eventPublisher = eventPublisher;
+        this.matchesPageSize = matchesPageSize;
+        this.matchesMaxPageSize = matchesMaxPageSize;
+        for (ActionType action : ActionType.values()) {
+            swipes.put(action, Counter.builder("kismet.swipes").tag("action", action.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.matchesCreated = Counter.builder("kismet.matches").register(meterRegistry);
+        this.cardsServed = deckRequests(meterRegistry, "card");
+        this.deckEmpty = deckRequests(meterRegistry, "empty");
+    }
+
+    public Optional<CandidateCard> findPotentialMatch(User currentUser) {
+        Optional<CandidateCard> card = potentialMatch(currentUser);
+        (card.isPresent() ? cardsServed : deckEmpty).increment();
+        return card;
+    }
+
+    private Optional<CandidateCard> potentialMatch(User currentUser) {
+        Optional<Long> likerId = likedYouLane.peek(currentUser.getId());
+        if (likerId.isPresent()) {
+            Optional<CandidateCard> liker = candidateCardCache.get(likerId.get());
+            if (liker.isPresent()) {
+                return liker;
+            }
+        }
+
+        Optional<Long> candidateId = candidateDeck.peek(currentUser.getId());
+        if (candidateId.isPresent()) {
+            Optional<CandidateCard> candidate = candidateCardCache.get(candidateId.get());
+            if (candidate.isPresent()) {
+                return candidate;
+            }
+            candidateDeck.remove(currentUser.getId(), candidateId.get());
+        }
+
+        if (candidateDeck.isExhausted(currentUser.getId())) {
+            return Optional.empty();
+        }
+        return userService.getRandomUserId(currentUser).flatMap(candidateCardCache::get);
     }
 
-    public Optional<User> findPotentialMatch(User currentUser) {
-        return userService.getRandomUser(currentUser);
+    public List<CandidateCard> nextCards(User currentUser, int count, Collection<Long> buffered) {
+        Set<Long> exclude = buffered == null ? Set.of() : Set.copyOf(buffered);
+        List<Long> regularIds = candidateDeck.peek(currentUser.getId(), count, exclude);
+        List<Long> ids = likedYouLane.interleave(currentUser.getId(), regularIds, count, exclude);
+        List<CandidateCard> cards = ids.isEmpty() && exclude.isEmpty() && !candidateDeck.isExhausted(currentUser.getId())
+                ? potentialMatch(currentUser).stream().toList()
+                : candidateCardCache.getAll(ids);
+        (cards.isEmpty() ? deckEmpty : cardsServed).increment();
+        return cards;
     }
 
     @Transactional
-    public void recordAction(User actor, User target, ActionType action) {
+    public boolean recordAction(User actor, User target, ActionType action) {
+        boolean matched = false;
+        if (action == ActionType.LIKE) {
+            matched = recordLike(actor, target);
+        } else if (!batchedSwipeWriter.enqueue(actor.getId(), target.getId(), action)) {
+            saveAction(actor, target, action);
+        }
+        swipeHistoryIndex.record(actor.getId(), target.getId());
+        likedYouLane.recordSwipe(actor.getId(), target.getId());
+        candidateDeck.remove(actor.getId(), target.getId());
+        swipes.get(action).increment();
+        return matched;
+    }
+
+    private boolean recordLike(User actor, User target) {
+        likeIndex.add(actor.getId(), target.getId());
+        boolean completesMatch = likeIndex.contains(target.getId(), actor.getId())
+                || (!likeIndex.isReady() && isLikedBy(actor, target));
+
+        if (completesMatch || !batchedSwipeWriter.enqueue(actor.getId(), target.getId(), ActionType.LIKE)) {
+            saveAction(actor, target, ActionType.LIKE);
+        }
+        if (completesMatch) {
+            createMutualMatch(actor, target);
+        } else {
+            likedYouLane.recordLike(actor.getId(), target.getId());
+        }
+        return completesMatch;
+    }
+
+    private void saveAction(User actor, User target, ActionType action) {
         MatchAction matchAction = new MatchAction();
         matchAction.setUser(actor);
         matchAction.setTarget(target);
         matchAction.setAction(action);
         matchActionRepository.save(matchAction);
-
-        if (action == ActionType.LIKE) {
-            checkForMutualMatch(actor, target);
-        }
     }
 
-    private void checkForMutualMatch(User user1, User user2) {
-        Optional<MatchAction> otherUsersAction = matchActionRepository.findByUserAndTarget(user2, user1);
+    private boolean isLikedBy(User actor, User target) {
+        Optional<MatchAction> otherUsersAction = matchActionRepository.findByUserAndTarget(target, actor);
+        return otherUsersAction.isPresent() && otherUsersAction.get().getAction() == ActionType.LIKE;
+    }
 
-        if (otherUsersAction.isPresent() && otherUsersAction.get().getAction() == ActionType.LIKE) {
-            Optional<MutualMatch> existingMatch = mutualMatchRepository.findMatchBetween(user1, user2);
-            if (existingMatch.isEmpty()) {
-                MutualMatch mutualMatch = new MutualMatch();
-                mutualMatch.setUser1(user1);
-                mutualMatch.setUser2(user2);
-                mutualMatchRepository.save(mutualMatch);
-            }
+    private void createMutualMatch(User user1, User user2) {
+        Long userOneId = Math.min(user1.getId(), user2.getId());
+        Long userTwoId = Math.max(user1.getId(), user2.getId());
+        likeIndex.resolve(userOneId, userTwoId);
+        if (mutualMatchRepository.insertIfAbsent(userOneId, userTwoId) > 0) {
+            matchesCreated.increment();
+            eventPublisher.publishEvent(new MutualMatchCreatedEvent(userOneId, userTwoId));
         }
     }
 
-    public List<User> getMatchedUsersFor(User currentUser) {
-        List<MutualMatch> matches = mutualMatchRepository.findByUser1OrUser2(currentUser, currentUser);
+    public Optional<MutualMatch> findMatchBetween(User user1, User user2) {
+        return mutualMatchRepository.findByUser1IdAndUser2Id(Math.min(user1.getId(), user2.getId()),
+                Math.max(user1.getId(), user2.getId()));
+    }
 
-        List<User> filteredMatches = matches.stream()
-                .map(match -> match.getUser1().equals(currentUser) ? match.getUser2() : match.getUser1())
-                .toList();
+    public MatchPage getMatches(User currentUser, Long beforeMatchId, Integer pageSize) {
+        int limit = pageSize == null ? matchesPageSize : Math.clamp(pageSize, 1, matchesMaxPageSize);
+        List<MatchSummary> matches = mutualMatchRepository.findMatchesBefore(currentUser.getId(),
+                beforeMatchId == null ? Long.MAX_VALUE : beforeMatchId, limit);
+        Long nextCursor = matches.size() == limit ? matches.getLast().getMatchId() : null;
+        return new MatchPage(matches, nextCursor);
+    }
 
-        return filteredMatches;
+    private static Counter deckRequests(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("kismet.deck.requests").tag("outcome", outcome).register(meterRegistry);
     }
 }
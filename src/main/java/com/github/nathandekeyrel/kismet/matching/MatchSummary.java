@@ -0,0 +1,11 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+public interface MatchSummary {
+    Long getMatchId();
+
+    Long getUserId();
+
+    String getFirstName();
+
+    String getLastName();
+}
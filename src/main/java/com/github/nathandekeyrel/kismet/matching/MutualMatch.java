@@ -10,7 +10,9 @@ import lombok.ToString;
 @EqualsAndHashCode(callSuper = true)
 @Data
 @Entity
-@Table(name = "mutual_matches")
+@Table(name = "mutual_matches",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_one_id", "user_two_id"}),
+        indexes = {@Index(columnList = "user_one_id, id"), @Index(columnList = "user_two_id, id")})
 public class MutualMatch extends Model {
     @ManyToOne
     @JoinColumn(name = "user_one_id", nullable = false)
@@ -21,4 +23,13 @@ public class MutualMatch extends Model {
     @JoinColumn(name = "user_two_id", nullable = false)
     @ToString.Exclude
     private User user2;
+
+    @PrePersist
+    private void canonicalizeOrder() {
+        if (user1.getId() > user2.getId()) {
+            User first = user2;
+            user2 = user1;
+            user1 = first;
+        }
+    }
 }
@@ -0,0 +1,4 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+public record MutualMatchCreatedEvent(Long userOneId, Long userTwoId) {
+}
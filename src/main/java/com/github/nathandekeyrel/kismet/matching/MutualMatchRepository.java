@@ -1,7 +1,7 @@
 package com.github.nathandekeyrel.kismet.matching;
 
-import com.github.nathandekeyrel.kismet.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -9,8 +9,20 @@ import java.util.List;
 import java.util.Optional;
 
 public interface MutualMatchRepository extends JpaRepository<MutualMatch, Long> {
-    List<MutualMatch> findByUser1OrUser2(User user1, User user2);
+    Optional<MutualMatch> findByUser1IdAndUser2Id(Long userOneId, Long userTwoId);
 
-    @Query("SELECT m FROM MutualMatch m WHERE (m.user1 = :user1 AND m.user2 = :user2) OR (m.user1 = :user2 AND m.user2 = :user1)")
-    Optional<MutualMatch> findMatchBetween(@Param("user1") User user1, @Param("user2") User user2);
+    @Query(value = "SELECT m.id AS matchId, u.id AS userId, u.first_name AS firstName, u.last_name AS lastName FROM (" +
+                   "(SELECT id, user_two_id AS other_id FROM mutual_matches " +
+                   "WHERE user_one_id = :userId AND id < :beforeId ORDER BY id DESC LIMIT :limit) " +
+                   "UNION ALL " +
+                   "(SELECT id, user_one_id AS other_id FROM mutual_matches " +
+                   "WHERE user_two_id = :userId AND id < :beforeId ORDER BY id DESC LIMIT :limit)" +
+                   ") m JOIN users u ON u.id = m.other_id ORDER BY m.id DESC LIMIT :limit", nativeQuery = true)
+    List<MatchSummary> findMatchesBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId,
+                                         @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO mutual_matches (user_one_id, user_two_id) VALUES (:userOneId, :userTwoId) " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userOneId") Long userOneId, @Param("userTwoId") Long userTwoId);
 }
@@ -0,0 +1,253 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.nathandekeyrel.kismet.profile.ProfileUpdatedEvent;
+import com.github.nathandekeyrel.kismet.profile.PromptType;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@ConditionalOnProperty(name = "kismet.deck.ranker", havingValue = "compatibility")
+public class ProfileFeatureIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileFeatureIndex.class);
+
+    public static final int ANSWER_DIMENSIONS = 256;
+    public static final int BIO_DIMENSIONS = 128;
+
+    // Weights are stored as signed bytes scaled by this, so a dot product of two unit vectors is sum / SCALE^2
+    public static final int QUANTIZATION_SCALE = 127;
+
+    private static final int MIN_TOKEN_LENGTH = 3;
+    private static final int FETCH_SIZE = 10_000;
+    // Profiles are edited with each node's own clock, so a refresh reaches this far behind its previous start
+    private static final long CLOCK_SKEW_MILLIS = 60_000;
+    private static final String PROFILE_PAGE_QUERY =
+            "SELECT p.user_id, p.bio, p.updated_at, a.prompt_type, a.answer_text FROM " +
+            "(SELECT id, user_id, bio, updated_at FROM profiles WHERE user_id > ? ORDER BY user_id LIMIT ?) p " +
+            "LEFT JOIN profile_answers a ON a.profile_id = p.id ORDER BY p.user_id";
+    private static final String CHANGED_PROFILES_QUERY =
+            "SELECT p.user_id, p.bio, p.updated_at, a.prompt_type, a.answer_text FROM profiles p " +
+            "LEFT JOIN profile_answers a ON a.profile_id = p.id WHERE p.updated_at > ? ORDER BY p.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int pageSize;
+    private final Map<Long, ProfileFeatures> features = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private volatile boolean loaded;
+    private volatile long refreshedSince;
+
+    public ProfileFeatureIndex(JdbcTemplate jdbcTemplate,
+                               @Value("${kismet.ranker.load-page-size:10000}") int pageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pageSize = pageSize;
+    }
+
+    public ProfileFeatures get(Long userId) {
+        return features.get(userId);
+    }
+
+    public void put(Long userId, String bio, Map<PromptType, String> answers, long updatedAtMillis) {
+        ProfileFeatures vectorized = vectorize(bio, answers, updatedAtMillis);
+        features.merge(userId, vectorized,
+                (current, candidate) -> candidate.updatedAtMillis() >= current.updatedAtMillis() ? candidate : current);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileUpdated(ProfileUpdatedEvent event) {
+        put(event.userId(), event.bio(), event.answers(), event.updatedAt().toEpochMilli());
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Candidates without features yet are ranked on jitter alone, so startup doesn't wait for the load
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofPlatform().name("profile-feature-load").daemon().start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Failed to load profile features; the next refresh retries", e);
+            } finally {
+                loading.set(false);
+            }
+        });
+    }
+
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        long profiles = 0;
+        long afterUserId = 0;
+        while (true) {
+            ProfileRowCollector page = new ProfileRowCollector();
+            jdbcTemplate.query(PROFILE_PAGE_QUERY, (RowCallbackHandler) page::accept, afterUserId, pageSize);
+            page.flush();
+            profiles += page.profiles;
+            if (page.profiles < pageSize) {
+                break;
+            }
+            afterUserId = page.userId;
+        }
+        refreshedSince = started - CLOCK_SKEW_MILLIS;
+        loaded = true;
+        log.info("Indexed profile features for {} users in {} ms", profiles, System.currentTimeMillis() - started);
+    }
+
+    // Profiles edited on other nodes only reach this one through the refresh; put keeps the newest version
+    @Scheduled(fixedDelayString = "${kismet.ranker.refresh-interval:PT1M}",
+               initialDelayString = "${kismet.ranker.refresh-interval:PT1M}")
+    @Transactional
+    public void refresh() {
+        if (!loaded) {
+            startLoading();
+            return;
+        }
+        long started = System.currentTimeMillis();
+        ProfileRowCollector changed = new ProfileRowCollector();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CHANGED_PROFILES_QUERY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setTimestamp(1, new Timestamp(refreshedSince));
+            return statement;
+        }, (RowCallbackHandler) changed::accept);
+        changed.flush();
+        refreshedSince = started - CLOCK_SKEW_MILLIS;
+        log.debug("Refreshed profile features for {} changed profiles in {} ms", changed.profiles,
+                System.currentTimeMillis() - started);
+    }
+
+    static ProfileFeatures vectorize(String bio, Map<PromptType, String> answers, long updatedAtMillis) {
+        float[] answerVector = new float[ANSWER_DIMENSIONS];
+        for (Map.Entry<PromptType, String> answer : answers.entrySet()) {
+            addTokens(answerVector, answer.getValue(), answer.getKey().ordinal() + 1);
+        }
+        float[] bioVector = new float[BIO_DIMENSIONS];
+        addTokens(bioVector, bio, 0);
+        return new ProfileFeatures(quantize(answerVector), quantize(bioVector), updatedAtMillis);
+    }
+
+    // A profile hashes only a few dozen tokens, so most dimensions are zero: keep the non-zero ones as sorted
+    // (dimension << 8 | byte weight) ints, a few hundred bytes per user instead of 1.5 KB of dense floats
+    private static int[] quantize(float[] vector) {
+        normalize(vector);
+        int[] entries = new int[vector.length];
+        int size = 0;
+        for (int dimension = 0; dimension < vector.length; dimension++) {
+            int weight = Math.round(vector[dimension] * QUANTIZATION_SCALE);
+            if (weight != 0) {
+                entries[size++] = dimension << 8 | (weight & 0xff);
+            }
+        }
+        return Arrays.copyOf(entries, size);
+    }
+
+    public static int dimension(int entry) {
+        return entry >>> 8;
+    }
+
+    public static int weight(int entry) {
+        return (byte) entry;
+    }
+
+    private static void addTokens(float[] vector, String text, int salt) {
+        if (text == null) {
+            return;
+        }
+        int mask = vector.length - 1;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    int hash = mix(text.substring(start, i).toLowerCase().hashCode() * 31 + salt);
+                    vector[hash & mask] += (hash & 0x80000000) == 0 ? 1f : -1f;
+                }
+                start = -1;
+            }
+        }
+    }
+
+    private static void normalize(float[] vector) {
+        double sum = 0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        if (sum == 0) {
+            return;
+        }
+        float scale = (float) (1 / Math.sqrt(sum));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    public record ProfileFeatures(int[] answers, int[] bio, long updatedAtMillis) {
+    }
+
+    private final class ProfileRowCollector {
+        private Long userId;
+        private String bio;
+        private long updatedAtMillis;
+        private final Map<PromptType, String> answers = new EnumMap<>(PromptType.class);
+        private long profiles;
+
+        private void accept(ResultSet resultSet) throws SQLException {
+            long rowUserId = resultSet.getLong(1);
+            if (userId == null || userId != rowUserId) {
+                flush();
+                userId = rowUserId;
+                bio = resultSet.getString(2);
+                Timestamp updatedAt = resultSet.getTimestamp(3);
+                updatedAtMillis = updatedAt == null ? 0L : updatedAt.getTime();
+            }
+            String promptType = resultSet.getString(4);
+            if (promptType != null) {
+                answers.put(PromptType.valueOf(promptType), resultSet.getString(5));
+            }
+        }
+
+        private void flush() {
+            if (userId != null) {
+                put(userId, bio, answers, updatedAtMillis);
+                profiles++;
+            }
+            answers.clear();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@ConditionalOnProperty(name = "kismet.deck.ranker", havingValue = "random", matchIfMissing = true)
+public class RandomCandidateRanker implements CandidateRanker {
+
+    @Override
+    public List<Long> rank(Long userId, List<Long> candidateIds) {
+        List<Long> shuffled = new ArrayList<>(candidateIds);
+        Collections.shuffle(shuffled, ThreadLocalRandom.current());
+        return shuffled;
+    }
+}
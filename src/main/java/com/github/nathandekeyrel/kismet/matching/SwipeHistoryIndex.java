@@ -0,0 +1,97 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+@Component
+public class SwipeHistoryIndex {
+
+    private final MatchActionRepository matchActionRepository;
+    private final BatchedSwipeWriter batchedSwipeWriter;
+
+    // Weighed by bitmap size; Caffeine evicts past the budget without a global lock on reads
+    private final Cache<Long, Entry> entries;
+
+    public SwipeHistoryIndex(MatchActionRepository matchActionRepository, BatchedSwipeWriter batchedSwipeWriter,
+                             @Value("${kismet.swipes.index.memory-budget:64MB}") DataSize memoryBudget) {
+        this.matchActionRepository = matchActionRepository;
+        this.batchedSwipeWriter = batchedSwipeWriter;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(memoryBudget.toBytes())
+                .<Long, Entry>weigher((actorId, entry) -> entry.bytes)
+                .build();
+    }
+
+    public boolean hasSwiped(Long actorId, Long targetId) {
+        Entry entry = entry(actorId);
+        synchronized (entry) {
+            return entry.bitmap.contains(Math.toIntExact(targetId));
+        }
+    }
+
+    public void record(Long actorId, Long targetId) {
+        Entry entry = entry(actorId);
+        synchronized (entry) {
+            if (!entry.bitmap.checkedAdd(Math.toIntExact(targetId))) {
+                return;
+            }
+            entry.bytes = weight(entry.bitmap);
+        }
+        // Putting the same entry back makes Caffeine weigh it again
+        entries.asMap().replace(actorId, entry, entry);
+    }
+
+    public void evict(Long actorId) {
+        entries.invalidate(actorId);
+    }
+
+    public long getTotalBytes() {
+        return entries.policy().eviction().orElseThrow().weightedSize().orElse(0L);
+    }
+
+    // Loaded on the caller's thread and connection, outside the map: a loader inside compute holds the bin lock and
+    // pins a virtual thread's carrier for the whole query. Two callers may load the same actor; the first put wins.
+    private Entry entry(Long actorId) {
+        Entry entry = entries.getIfPresent(actorId);
+        if (entry != null) {
+            return entry;
+        }
+        Entry loaded = load(actorId);
+        Entry raced = entries.asMap().putIfAbsent(actorId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private Entry load(Long actorId) {
+        // Read the write-behind queue first: a swipe that leaves it after this point is already in the table
+        List<Long> pending = batchedSwipeWriter.pendingTargets(actorId);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (Long targetId : matchActionRepository.findTargetIdsByActorId(actorId)) {
+            bitmap.add(Math.toIntExact(targetId));
+        }
+        for (Long targetId : pending) {
+            bitmap.add(Math.toIntExact(targetId));
+        }
+        bitmap.runOptimize();
+        return new Entry(bitmap);
+    }
+
+    private static int weight(RoaringBitmap bitmap) {
+        return (int) Math.min(Integer.MAX_VALUE, bitmap.getLongSizeInBytes());
+    }
+
+    private static final class Entry {
+        private final RoaringBitmap bitmap;
+        private volatile int bytes;
+
+        private Entry(RoaringBitmap bitmap) {
+            this.bitmap = bitmap;
+            this.bytes = weight(bitmap);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import java.util.List;
+
+public record SwipeRequest(Long targetId, ActionType action, Integer count, List<Long> buffered) {
+}
@@ -0,0 +1,6 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import java.util.List;
+
+public record SwipeResult(boolean matched, List<CandidateCard> cards) {
+}
@@ -0,0 +1,54 @@
+package com.github.nathandekeyrel.kismet.monitoring;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Only ever touched by the thread serving the request, so plain fields are enough
+public final class RequestStatements {
+
+    public static final String ATTRIBUTE = RequestStatements.class.getName();
+
+    private final Map<String, Integer> executions = new HashMap<>();
+    private int statements;
+    private long rows;
+    private long elapsedNanos;
+    private long startedAt;
+
+    void beforeStatement() {
+        startedAt = System.nanoTime();
+    }
+
+    void afterStatement(String sql, long affectedRows) {
+        elapsedNanos += System.nanoTime() - startedAt;
+        statements++;
+        rows += affectedRows;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    void rowRead() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        executions.forEach((sql, count) -> {
+            if (count >= threshold) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.nathandekeyrel.kismet.monitoring;
+
+public final class StatementTracker {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private StatementTracker() {
+    }
+
+    public static RequestStatements begin() {
+        RequestStatements statements = new RequestStatements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestStatements current() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.nathandekeyrel.kismet.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class StatementTrackingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private static final Logger statementLog = LoggerFactory.getLogger("kismet.sql");
+
+    private final boolean tracking;
+    private final boolean countRows;
+    private final boolean logging;
+    private final double logSampleRate;
+
+    public StatementTrackingDataSourcePostProcessor(
+            @Value("${kismet.sql.tracking.enabled:true}") boolean tracking,
+            @Value("${kismet.sql.tracking.count-rows:true}") boolean countRows,
+            @Value("${kismet.sql.log.enabled:false}") boolean logging,
+            @Value("${kismet.sql.log.sample-rate:0.01}") double logSampleRate) {
+        this.tracking = tracking;
+        this.countRows = countRows;
+        this.logging = logging;
+        this.logSampleRate = logSampleRate;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource || !(tracking || logging)) {
+            return bean;
+        }
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource).name(beanName);
+        if (tracking) {
+            builder.beforeQuery((execution, queries) -> {
+                        RequestStatements statements = StatementTracker.current();
+                        if (statements != null) {
+                            statements.beforeStatement();
+                        }
+                    })
+                    .afterQuery(StatementTrackingDataSourcePostProcessor::afterQuery);
+            if (countRows) {
+                builder.proxyResultSet().afterMethod(StatementTrackingDataSourcePostProcessor::afterMethod);
+            }
+        }
+        if (logging) {
+            builder.afterQuery(this::logSampled);
+        }
+        return builder.build();
+    }
+
+    // Replaces spring.jpa.show-sql, which wrote every statement to stdout on the request thread
+    private void logSampled(ExecutionInfo execution, List<QueryInfo> queries) {
+        if (!statementLog.isInfoEnabled() || ThreadLocalRandom.current().nextDouble() >= logSampleRate) {
+            return;
+        }
+        for (QueryInfo query : queries) {
+            statementLog.info("{} ms{}: {}", execution.getElapsedTime(),
+                    execution.isBatch() ? " (batch of " + execution.getBatchSize() + ")" : "", query.getQuery());
+        }
+    }
+
+    private static void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+        RequestStatements statements = StatementTracker.current();
+        if (statements == null) {
+            return;
+        }
+        long affectedRows = 0;
+        if (execution.getResult() instanceof Integer count) {
+            affectedRows = Math.max(0, count);
+        } else if (execution.getResult() instanceof int[] counts) {
+            for (int count : counts) {
+                affectedRows += Math.max(0, count);
+            }
+        }
+        statements.afterStatement(queries.isEmpty() ? "" : queries.getFirst().getQuery(), affectedRows);
+    }
+
+    private static void afterMethod(MethodExecutionContext context) {
+        if (context.getTarget() instanceof ResultSet && Boolean.TRUE.equals(context.getResult())
+            && context.getMethod().getName().equals("next")) {
+            RequestStatements statements = StatementTracker.current();
+            if (statements != null) {
+                statements.rowRead();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.nathandekeyrel.kismet.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(name = "kismet.sql.tracking.enabled", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementTrackingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementTrackingFilter.class);
+
+    private static final int MAX_REPORTED = 1_000;
+
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+    private final boolean responseHeaders;
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    public StatementTrackingFilter(MeterRegistry meterRegistry,
+                                   @Value("${kismet.sql.repeat-threshold:3}") int repeatThreshold,
+                                   @Value("${kismet.sql.response-headers:false}") boolean responseHeaders) {
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStatements statements = StatementTracker.begin();
+        request.setAttribute(RequestStatements.ATTRIBUTE, statements);
+        // Headers have to be set before the body commits the response, so buffer it (never for streams)
+        ContentCachingResponseWrapper buffered = responseHeaders && !isEventStream(request)
+                ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, buffered == null ? response : buffered);
+        } finally {
+            StatementTracker.end();
+            Map<String, Integer> repeated = statements.getRepeatedStatements(repeatThreshold);
+            record(request, statements, repeated);
+            if (buffered != null) {
+                buffered.setHeader("X-Sql-Statements", Integer.toString(statements.getStatements()));
+                buffered.setHeader("X-Sql-Rows", Long.toString(statements.getRows()));
+                buffered.setHeader("X-Sql-Time", String.format("%.3f", statements.getElapsedNanos() / 1e6));
+                buffered.setHeader("X-Sql-Repeated", Integer.toString(repeated.size()));
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestStatements statements, Map<String, Integer> repeated) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("kismet.sql.statements").tag("uri", uri).register(meterRegistry)
+                .record(statements.getStatements());
+        DistributionSummary.builder("kismet.sql.rows").tag("uri", uri).register(meterRegistry)
+                .record(statements.getRows());
+        Timer.builder("kismet.sql.time").tag("uri", uri).register(meterRegistry)
+                .record(statements.getElapsedNanos(), TimeUnit.NANOSECONDS);
+        if (repeated.isEmpty()) {
+            return;
+        }
+
+        Counter.builder("kismet.sql.repeated").tag("uri", uri).register(meterRegistry).increment();
+        repeated.forEach((sql, count) -> {
+            String key = request.getMethod() + " " + uri + " " + sql;
+            if (reported.size() < MAX_REPORTED && reported.add(key)) {
+                log.warn("{} {} ran the same statement {} times, probably an N+1 query: {}", request.getMethod(),
+                        uri, count, sql);
+            } else {
+                log.debug("{} {} ran the same statement {} times: {}", request.getMethod(), uri, count, sql);
+            }
+        });
+    }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.nathandekeyrel.kismet.notification;
+
+public record Notification(String type, Long userId) {
+
+    public static final String MATCH = "match";
+    public static final String FRIEND_REQUEST = "friend-request";
+}
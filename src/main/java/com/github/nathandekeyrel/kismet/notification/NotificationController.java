@@ -0,0 +1,28 @@
+package com.github.nathandekeyrel.kismet.notification;
+
+import com.github.nathandekeyrel.kismet.user.UserService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/api")
+public class NotificationController {
+
+    private final UserService userService;
+    private final NotificationHub notificationHub;
+
+    public NotificationController(UserService userService, NotificationHub notificationHub) {
+        this.userService = userService;
+        this.notificationHub = notificationHub;
+    }
+
+    @GetMapping(path = "/notifications", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(Principal principal) {
+        return notificationHub.subscribe(userService.getCurrentUser(principal).getId());
+    }
+}
@@ -0,0 +1,183 @@
+package com.github.nathandekeyrel.kismet.notification;
+
+import com.github.nathandekeyrel.kismet.friendship.FriendRequestSentEvent;
+import com.github.nathandekeyrel.kismet.matching.MutualMatchCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class NotificationHub {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationHub.class);
+
+    // Queued by identity; event builders accumulate state on every build, so each send creates its own
+    private static final Notification HEARTBEAT = new Notification("heartbeat", null);
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService fanOut = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final int bufferSize;
+    private final int maxSubscriptionsPerUser;
+    private final long timeoutMillis;
+    private final Counter dropped;
+
+    public NotificationHub(MeterRegistry meterRegistry,
+                           @Value("${kismet.notifications.buffer-size:32}") int bufferSize,
+                           @Value("${kismet.notifications.max-subscriptions-per-user:5}") int maxSubscriptionsPerUser,
+                           @Value("${kismet.notifications.timeout:PT30M}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.maxSubscriptionsPerUser = maxSubscriptionsPerUser;
+        this.timeoutMillis = timeout.toMillis();
+        this.dropped = Counter.builder("kismet.notifications.dropped").register(meterRegistry);
+        Gauge.builder("kismet.notifications.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeoutMillis));
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(error -> subscriber.close());
+
+        Set<Subscriber> userSubscribers = subscribers.compute(userId, (id, current) -> {
+            Set<Subscriber> updated = current == null ? ConcurrentHashMap.newKeySet() : current;
+            updated.add(subscriber);
+            return updated;
+        });
+        subscriberCount.incrementAndGet();
+        if (userSubscribers.size() > maxSubscriptionsPerUser) {
+            userSubscribers.stream().filter(other -> other != subscriber).findFirst().ifPresent(Subscriber::close);
+        }
+        return subscriber.emitter;
+    }
+
+    public void publish(Long userId, Notification notification) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.offer(notification);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMutualMatchCreated(MutualMatchCreatedEvent event) {
+        publish(event.userOneId(), new Notification(Notification.MATCH, event.userTwoId()));
+        publish(event.userTwoId(), new Notification(Notification.MATCH, event.userOneId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendRequestSent(FriendRequestSentEvent event) {
+        publish(event.addresseeId(), new Notification(Notification.FRIEND_REQUEST, event.requesterId()));
+    }
+
+    @Scheduled(fixedDelayString = "${kismet.notifications.heartbeat-interval:PT25S}",
+               initialDelayString = "${kismet.notifications.heartbeat-interval:PT25S}")
+    public void sendHeartbeats() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::close));
+        fanOut.shutdownNow();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            if (userSubscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Notification> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(Notification notification) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(notification)) {
+                dropped.increment();
+                log.debug("Dropping slow notification subscriber for user {}", userId);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                fanOut.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Notification notification;
+                while (!closed && (notification = buffer.poll()) != null) {
+                    emitter.send(notification == HEARTBEAT
+                            ? SseEmitter.event().comment("heartbeat")
+                            : SseEmitter.event().name(notification.type()).data(notification));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+            remove(this);
+            emitter.complete();
+        }
+    }
+}
@@ -5,13 +5,20 @@ import com.github.nathandekeyrel.kismet.user.User;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @EqualsAndHashCode(callSuper = true)
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "profiles")
 public class Profile extends Model {
     @OneToOne
@@ -22,5 +29,13 @@ public class Profile extends Model {
     private String bio;
 
     @OneToMany(mappedBy = "profile")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<ProfileAnswer> answers = new ArrayList<>();
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    @Version
+    @ColumnDefault("0")
+    private long version;
 }
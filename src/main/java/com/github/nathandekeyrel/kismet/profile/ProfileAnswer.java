@@ -4,10 +4,14 @@ import com.github.nathandekeyrel.kismet.common.Model;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @EqualsAndHashCode(callSuper = true)
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "profile_answers", uniqueConstraints = @UniqueConstraint(columnNames = {"profile_id", "prompt_type"}))
 public class ProfileAnswer extends Model {
     @ManyToOne
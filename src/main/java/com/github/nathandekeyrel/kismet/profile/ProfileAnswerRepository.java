@@ -1,12 +1,17 @@
 package com.github.nathandekeyrel.kismet.profile;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface ProfileAnswerRepository extends JpaRepository<ProfileAnswer, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ProfileAnswer> findByProfile(Profile profile);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<ProfileAnswer> findByProfileAndPromptType(Profile profile, PromptType promptType);
 }
@@ -0,0 +1,88 @@
+package com.github.nathandekeyrel.kismet.profile;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class ProfileAnswerWriter {
+
+    // Concurrent MERGEs on the same new prompt both take the NOT MATCHED branch and one fails on the unique key;
+    // ON CONFLICT lets the database arbitrate instead
+    private static final String UPSERT_ANSWERS =
+            "INSERT INTO profile_answers (profile_id, prompt_type, answer_text) VALUES %s " +
+            "ON CONFLICT (profile_id, prompt_type) DO UPDATE SET answer_text = EXCLUDED.answer_text";
+    // H2 (tests) has no ON CONFLICT ... DO UPDATE; its keyed MERGE is the equivalent atomic upsert
+    private static final String MERGE_ANSWERS =
+            "MERGE INTO profile_answers (profile_id, prompt_type, answer_text) KEY (profile_id, prompt_type) " +
+            "VALUES %s";
+    private static final String DELETE_ANSWERS =
+            "DELETE FROM profile_answers WHERE profile_id = ? AND prompt_type IN (%s)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final String upsertAnswers;
+
+    public ProfileAnswerWriter(EntityManagerFactory entityManagerFactory) {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.upsertAnswers = dialect instanceof PostgreSQLDialect ? UPSERT_ANSWERS : MERGE_ANSWERS;
+    }
+
+    // A null answer text deletes that prompt's answer; everything else is inserted or updated in place. Both
+    // statements run in the caller's transaction
+    public int writeAnswers(Long profileId, Map<PromptType, String> changes) {
+        List<Map.Entry<PromptType, String>> upserts = new ArrayList<>();
+        List<PromptType> deletes = new ArrayList<>();
+        for (Map.Entry<PromptType, String> change : changes.entrySet()) {
+            if (change.getValue() == null) {
+                deletes.add(change.getKey());
+            } else {
+                upserts.add(change);
+            }
+        }
+
+        int written = 0;
+        if (!upserts.isEmpty()) {
+            Query query = nativeQuery(upsertAnswers.formatted(placeholders(upserts.size(), "(?, ?, ?)")));
+            int position = 1;
+            for (Map.Entry<PromptType, String> upsert : upserts) {
+                query.setParameter(position++, profileId);
+                query.setParameter(position++, upsert.getKey().name());
+                query.setParameter(position++, upsert.getValue());
+            }
+            written += query.executeUpdate();
+        }
+        if (!deletes.isEmpty()) {
+            Query query = nativeQuery(DELETE_ANSWERS.formatted(placeholders(deletes.size(), "?")));
+            query.setParameter(1, profileId);
+            int position = 2;
+            for (PromptType promptType : deletes) {
+                query.setParameter(position++, promptType.name());
+            }
+            written += query.executeUpdate();
+        }
+        return written;
+    }
+
+    private Query nativeQuery(String sql) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(ProfileAnswer.class);
+        return query;
+    }
+
+    private static String placeholders(int count, String placeholder) {
+        return String.join(", ", Collections.nCopies(count, placeholder));
+    }
+}
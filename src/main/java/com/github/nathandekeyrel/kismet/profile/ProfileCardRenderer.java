@@ -0,0 +1,48 @@
+package com.github.nathandekeyrel.kismet.profile;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+public class ProfileCardRenderer {
+
+    public static final String OWN = "own";
+    public static final String CANDIDATE = "candidate";
+
+    private static final String TEMPLATE = "fragments/profile-card";
+
+    private final ITemplateEngine templateEngine;
+    private final Cache<CardKey, String> fragments;
+
+    public ProfileCardRenderer(ITemplateEngine templateEngine, MeterRegistry meterRegistry,
+                               @Value("${kismet.profile.card-cache.max-size:10000}") long maxSize) {
+        this.templateEngine = templateEngine;
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, fragments, "profileCards");
+    }
+
+    public String render(String fragment, Long profileId, long version, String bio, List<?> answers) {
+        return fragments.get(new CardKey(fragment, profileId, version), key -> {
+            Context context = new Context(Locale.getDefault(), Map.of("bio", bio == null ? "" : bio,
+                    "answers", answers));
+            return templateEngine.process(TEMPLATE, Set.of(fragment), context);
+        });
+    }
+
+    private record CardKey(String fragment, Long profileId, long version) {
+    }
+}
@@ -2,35 +2,53 @@ package com.github.nathandekeyrel.kismet.profile;
 
 import com.github.nathandekeyrel.kismet.user.User;
 import com.github.nathandekeyrel.kismet.user.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.context.request.WebRequest;
 
 import java.security.Principal;
-import java.util.List;
 
 @Controller
 public class ProfileController {
 
     private final UserService userService;
     private final ProfileService profileService;
+    private final ProfileCardRenderer profileCardRenderer;
+    private final String etagSalt;
 
-    public ProfileController(UserService userService, ProfileService profileService) {
+    public ProfileController(UserService userService, ProfileService profileService,
+                             ProfileCardRenderer profileCardRenderer,
+                             @Value("${kismet.profile.etag-salt:}") String etagSalt) {
         this.userService = userService;
         this.profileService = profileService;
+        this.profileCardRenderer = profileCardRenderer;
+        this.etagSalt = etagSalt.isEmpty() ? Long.toString(System.currentTimeMillis(), 36) : etagSalt;
     }
 
     @GetMapping("/profile")
-    public String showProfile(Model model, Principal principal) {
+    public String showProfile(Model model, Principal principal, WebRequest request, HttpServletResponse response) {
         User currentUser = userService.getCurrentUser(principal);
         Profile profile = profileService.getByUser(currentUser);
-        List<ProfileAnswer> answers = profileService.getAnswersByProfile(profile);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        String etag = "\"" + etagSalt + "-" + profile.getId() + "-" + profile.getVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        String card = profileCardRenderer.render(ProfileCardRenderer.OWN, profile.getId(), profile.getVersion(),
+                profile.getBio(), profileService.getAnswersByProfile(profile));
 
         model.addAttribute("user", currentUser);
         model.addAttribute("profile", profile);
-        model.addAttribute("answers", answers);
+        model.addAttribute("profileCard", card);
 
         return "profile";
     }
@@ -1,10 +1,14 @@
 package com.github.nathandekeyrel.kismet.profile;
 
 import com.github.nathandekeyrel.kismet.user.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface ProfileRepository extends JpaRepository<Profile, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Profile> findByUser(User user);
 }
@@ -1,21 +1,33 @@
 package com.github.nathandekeyrel.kismet.profile;
 
 import com.github.nathandekeyrel.kismet.user.User;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @Service
+@Timed(value = "kismet.service", histogram = true)
 public class ProfileService {
 
     private final ProfileRepository profileRepository;
     private final ProfileAnswerRepository profileAnswerRepository;
+    private final ProfileAnswerWriter profileAnswerWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProfileService(ProfileAnswerRepository profileAnswerRepository, ProfileRepository profileRepository) {
+    public ProfileService(ProfileAnswerRepository profileAnswerRepository, ProfileRepository profileRepository,
+                          ProfileAnswerWriter profileAnswerWriter, ApplicationEventPublisher eventPublisher) {
         this.profileRepository = profileRepository;
         this.profileAnswerRepository = profileAnswerRepository;
+        this.profileAnswerWriter = profileAnswerWriter;
+        this.eventPublisher = eventPublisher;
     }
 
     public Profile getByUser(User user) {
@@ -52,26 +64,43 @@ public class ProfileService {
         return form;
     }
 
+    @Transactional
     public void updateProfile(Profile profile, String bio, Map<PromptType, String> answers) {
-        profile.setBio(bio);
-        saveProfile(profile);
+        Map<PromptType, String> savedAnswers = new EnumMap<>(PromptType.class);
+        for (ProfileAnswer answer : profileAnswerRepository.findByProfile(profile)) {
+            savedAnswers.put(answer.getPromptType(), answer.getAnswerText());
+        }
 
+        Map<PromptType, String> changes = new EnumMap<>(PromptType.class);
         for (Map.Entry<PromptType, String> entry : answers.entrySet()) {
-            saveOrUpdateAnswer(profile, entry.getKey(), entry.getValue());
+            String answerText = isBlank(entry.getValue()) ? null : entry.getValue();
+            if (!Objects.equals(savedAnswers.get(entry.getKey()), answerText)) {
+                changes.put(entry.getKey(), answerText);
+            }
         }
-    }
-
-    private void saveOrUpdateAnswer(Profile profile, PromptType promptType, String answerText) {
-        if (answerText == null || answerText.trim().isEmpty()) {
+        if (changes.isEmpty() && Objects.equals(profile.getBio(), bio)) {
             return;
         }
 
-        ProfileAnswer answer = getProfileAnswer(profile, promptType);
-        answer.setProfile(profile);
-        answer.setPromptType(promptType);
-        answer.setAnswerText(answerText);
+        profileAnswerWriter.writeAnswers(profile.getId(), changes);
+        changes.forEach((promptType, answerText) -> {
+            if (answerText == null) {
+                savedAnswers.remove(promptType);
+            } else {
+                savedAnswers.put(promptType, answerText);
+            }
+        });
+
+        profile.setBio(bio);
+        profile.setUpdatedAt(Instant.now());
+        saveProfile(profile);
+
+        eventPublisher.publishEvent(new ProfileUpdatedEvent(profile.getId(), profile.getUser().getId(), bio,
+                savedAnswers, Instant.now()));
+    }
 
-        saveAnswer(answer);
+    private static boolean isBlank(String answerText) {
+        return answerText == null || answerText.trim().isEmpty();
     }
 
 }
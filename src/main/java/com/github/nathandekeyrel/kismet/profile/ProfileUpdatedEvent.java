@@ -0,0 +1,8 @@
+package com.github.nathandekeyrel.kismet.profile;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record ProfileUpdatedEvent(Long profileId, Long userId, String bio, Map<PromptType, String> answers,
+                                  Instant updatedAt) {
+}
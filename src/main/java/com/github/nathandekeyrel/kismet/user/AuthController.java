@@ -2,7 +2,8 @@ package com.github.nathandekeyrel.kismet.user;
 
 import com.github.nathandekeyrel.kismet.profile.Profile;
 import com.github.nathandekeyrel.kismet.profile.ProfileService;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,12 +14,13 @@ public class AuthController {
 
     private final UserService userService;
     private final ProfileService profileService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingBulkhead passwordHashingBulkhead;
 
-    public AuthController(UserService userService, ProfileService profileService, PasswordEncoder passwordEncoder) {
+    public AuthController(UserService userService, ProfileService profileService,
+                          PasswordHashingBulkhead passwordHashingBulkhead) {
         this.userService = userService;
         this.profileService = profileService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingBulkhead = passwordHashingBulkhead;
     }
 
     @GetMapping("/register")
@@ -28,12 +30,19 @@ public class AuthController {
     }
 
     @PostMapping("/register")
-    public String processRegistration(User user, Model model) {
+    public String processRegistration(User user, Model model, HttpServletResponse response) {
         if (userService.existsByEmail(user.getEmail())) {
             model.addAttribute("error", "An account with this email already exists.");
             return "register";
         }
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        try {
+            user.setPassword(passwordHashingBulkhead.encode(user.getPassword()));
+        } catch (PasswordHashingRejectedException e) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            model.addAttribute("error", "We're busy right now. Please try again in a moment.");
+            return "register";
+        }
         userService.save(user);
 
         Profile profile = new Profile();
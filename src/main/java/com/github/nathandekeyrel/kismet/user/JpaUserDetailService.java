@@ -5,23 +5,18 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-
 @Service
 public class JpaUserDetailService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserService userService;
 
-    public JpaUserDetailService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public JpaUserDetailService(UserService userService) {
+        this.userService = userService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<User> userOptional = userRepository.findByEmail(username);
-
-        User user = userOptional.orElseThrow(() ->
-                new UsernameNotFoundException("User not found"));
+        User user = userService.getUser(username);
 
         return org.springframework.security.core.userdetails.User
                 .withUsername(user.getEmail())
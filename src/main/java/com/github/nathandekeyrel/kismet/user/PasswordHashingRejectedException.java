@@ -0,0 +1,10 @@
+package com.github.nathandekeyrel.kismet.user;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+
+    public PasswordHashingRejectedException() {
+        super("Too many password checks in progress");
+    }
+}
@@ -2,10 +2,11 @@ package com.github.nathandekeyrel.kismet.user;
 
 import com.github.nathandekeyrel.kismet.common.Model;
 import com.github.nathandekeyrel.kismet.friendship.Friendship;
-import com.github.nathandekeyrel.kismet.profile.Profile;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.HashSet;
@@ -14,6 +15,8 @@ import java.util.Set;
 @EqualsAndHashCode(callSuper = true)
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "users")
 public class User extends Model {
     @Column(unique = true, nullable = false)
@@ -35,9 +38,6 @@ public class User extends Model {
     @Column(nullable = false)
     private Gender gender;
 
-    @OneToOne(mappedBy = "user")
-    private Profile profile;
-
     @OneToMany(mappedBy = "requester")
     private Set<Friendship> sentFriendRequests = new HashSet<>();
 
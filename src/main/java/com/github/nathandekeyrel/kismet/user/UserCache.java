@@ -0,0 +1,195 @@
+package com.github.nathandekeyrel.kismet.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class UserCache {
+
+    private static final String REQUEST_ATTRIBUTE = UserCache.class.getName() + ".users";
+
+    // The shared tier keeps immutable snapshots; every hit gets its own detached User, so requests never share
+    // a mutable entity or its lazy collections
+    private final Cache<String, CachedUser> sharedByEmail;
+    private final Cache<Long, CachedUser> sharedById;
+    private final Counter requestHits;
+    private final Counter sharedHits;
+    private final Counter misses;
+
+    public UserCache(MeterRegistry meterRegistry,
+                     @Value("${kismet.users.cache.enabled:false}") boolean sharedEnabled,
+                     @Value("${kismet.users.cache.max-size:10000}") long maxSize,
+                     @Value("${kismet.users.cache.ttl:PT1M}") Duration ttl) {
+        if (sharedEnabled) {
+            this.sharedByEmail = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+            this.sharedById = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+            Gauge.builder("kismet.users.cache.size", sharedById, Cache::estimatedSize).register(meterRegistry);
+        } else {
+            this.sharedByEmail = null;
+            this.sharedById = null;
+        }
+        this.requestHits = lookups(meterRegistry, "request", "hit");
+        this.sharedHits = lookups(meterRegistry, "shared", "hit");
+        this.misses = lookups(meterRegistry, "none", "miss");
+    }
+
+    public Optional<User> findByEmail(String email, Function<String, Optional<User>> loader) {
+        RequestUsers requestUsers = requestUsers();
+        User user = requestUsers == null ? null : requestUsers.byEmail.get(email);
+        if (user != null) {
+            requestHits.increment();
+            return Optional.of(user);
+        }
+        user = sharedByEmail == null ? null : toUser(sharedByEmail.getIfPresent(email));
+        if (user != null) {
+            sharedHits.increment();
+            remember(requestUsers, user);
+            return Optional.of(user);
+        }
+        misses.increment();
+        Optional<User> loaded = loader.apply(email);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public Optional<User> findById(Long id, Function<Long, Optional<User>> loader) {
+        RequestUsers requestUsers = requestUsers();
+        User user = requestUsers == null ? null : requestUsers.byId.get(id);
+        if (user != null) {
+            requestHits.increment();
+            return Optional.of(user);
+        }
+        user = sharedById == null ? null : toUser(sharedById.getIfPresent(id));
+        if (user != null) {
+            sharedHits.increment();
+            remember(requestUsers, user);
+            return Optional.of(user);
+        }
+        misses.increment();
+        Optional<User> loaded = loader.apply(id);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public void put(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        remember(requestUsers(), user);
+        if (sharedById != null) {
+            CachedUser snapshot = CachedUser.of(user);
+            sharedById.put(user.getId(), snapshot);
+            sharedByEmail.put(user.getEmail(), snapshot);
+        }
+    }
+
+    public void invalidate(User user) {
+        RequestUsers requestUsers = requestUsers();
+        if (requestUsers != null) {
+            forget(requestUsers.byId.remove(user.getId()), requestUsers);
+            requestUsers.byEmail.remove(user.getEmail());
+        }
+        if (sharedById == null || user.getId() == null) {
+            return;
+        }
+        invalidateShared(user.getId(), user.getEmail());
+        // A concurrent reader may cache the old row again before the write commits, so evict once more after it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Long id = user.getId();
+            String email = user.getEmail();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateShared(id, email);
+                }
+            });
+        }
+    }
+
+    private void invalidateShared(Long id, String email) {
+        CachedUser previous = sharedById.asMap().remove(id);
+        if (previous != null) {
+            sharedByEmail.invalidate(previous.email());
+        }
+        sharedByEmail.invalidate(email);
+    }
+
+    private static User toUser(CachedUser snapshot) {
+        if (snapshot == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(snapshot.id());
+        user.setEmail(snapshot.email());
+        user.setPassword(snapshot.password());
+        user.setFirstName(snapshot.firstName());
+        user.setLastName(snapshot.lastName());
+        user.setDateOfBirth(snapshot.dateOfBirth());
+        user.setGender(snapshot.gender());
+        return user;
+    }
+
+    private static void remember(RequestUsers requestUsers, User user) {
+        if (requestUsers != null) {
+            requestUsers.byId.put(user.getId(), user);
+            requestUsers.byEmail.put(user.getEmail(), user);
+        }
+    }
+
+    private static void forget(User previous, RequestUsers requestUsers) {
+        if (previous != null) {
+            requestUsers.byEmail.remove(previous.getEmail());
+        }
+    }
+
+    private static RequestUsers requestUsers() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object users = attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (users instanceof RequestUsers requestUsers) {
+            return requestUsers;
+        }
+        RequestUsers requestUsers = new RequestUsers();
+        attributes.setAttribute(REQUEST_ATTRIBUTE, requestUsers, RequestAttributes.SCOPE_REQUEST);
+        return requestUsers;
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("kismet.users.cache.lookups")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record CachedUser(Long id, String email, String password, String firstName, String lastName,
+                              LocalDate dateOfBirth, Gender gender) {
+
+        private static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getEmail(), user.getPassword(), user.getFirstName(),
+                    user.getLastName(), user.getDateOfBirth(), user.getGender());
+        }
+    }
+
+    private static final class RequestUsers {
+        private final Map<Long, User> byId = new HashMap<>();
+        private final Map<String, User> byEmail = new HashMap<>();
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.nathandekeyrel.kismet.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+@Component
+@ConditionalOnProperty(name = "kismet.import.file")
+public class UserImportRunner implements ApplicationRunner {
+
+    private final UserImporter userImporter;
+    private final ConfigurableApplicationContext applicationContext;
+    private final Path file;
+    private final boolean exitWhenDone;
+
+    public UserImportRunner(UserImporter userImporter, ConfigurableApplicationContext applicationContext,
+                            @Value("${kismet.import.file}") Path file,
+                            @Value("${kismet.import.exit-when-done:true}") boolean exitWhenDone) {
+        this.userImporter = userImporter;
+        this.applicationContext = applicationContext;
+        this.file = file;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        userImporter.importFile(file);
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.github.nathandekeyrel.kismet.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+@Component
+public class UserImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImporter.class);
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (email, password, first_name, last_name, date_of_birth, gender) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String EXISTING_EMAILS = "SELECT email FROM users WHERE email IN (%s)";
+    private static final String INSERT_PROFILES =
+            "INSERT INTO profiles (user_id, version, updated_at) SELECT u.id, 0, CURRENT_TIMESTAMP FROM users u " +
+            "WHERE u.email IN (%s) AND NOT EXISTS (SELECT 1 FROM profiles p WHERE p.user_id = u.id)";
+    private static final String IMPORTED_USERS = "SELECT id, first_name, last_name FROM users WHERE email IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final UserSearchIndex userSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int parallelism;
+    private final long progressIntervalMillis;
+    private final ForkJoinPool hashingPool;
+
+    public UserImporter(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, UserSearchIndex userSearchIndex,
+                        ObjectMapper objectMapper,
+                        @Value("${kismet.import.batch-size:1000}") int batchSize,
+                        @Value("${kismet.import.parallelism:0}") int parallelism,
+                        @Value("${kismet.import.progress-interval:PT10S}") Duration progressInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.userSearchIndex = userSearchIndex;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.progressIntervalMillis = progressInterval.toMillis();
+        this.hashingPool = new ForkJoinPool(this.parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    public static Path checkpointFor(Path file) {
+        return file.resolveSibling(file.getFileName() + ".checkpoint");
+    }
+
+    public ImportReport importFile(Path file) throws IOException {
+        Path checkpoint = checkpointFor(file);
+        long resumeAfter = Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0L;
+        boolean csv = file.getFileName().toString().toLowerCase().endsWith(".csv");
+        Progress progress = new Progress(file, resumeAfter);
+        if (resumeAfter > 0) {
+            log.info("Resuming import of {} after line {}", file, resumeAfter);
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> header = csv ? parseCsvLine(Objects.requireNonNullElse(reader.readLine(), "")) : null;
+            long lineNumber = csv ? 1 : 0;
+            Deque<Future<PreparedBatch>> inFlight = new ArrayDeque<>();
+            List<ImportedUser> batch = new ArrayList<>(batchSize);
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= resumeAfter || line.isBlank()) {
+                    continue;
+                }
+                ImportedUser user = parse(line, header);
+                if (user == null) {
+                    log.debug("Skipping invalid user on line {} of {}", lineNumber, file);
+                    progress.invalid++;
+                    continue;
+                }
+                batch.add(user);
+                if (batch.size() == batchSize) {
+                    submit(inFlight, batch, lineNumber);
+                    batch = new ArrayList<>(batchSize);
+                    while (inFlight.size() > parallelism) {
+                        write(inFlight.removeFirst(), checkpoint, progress);
+                    }
+                }
+            }
+            submit(inFlight, batch, lineNumber);
+            while (!inFlight.isEmpty()) {
+                write(inFlight.removeFirst(), checkpoint, progress);
+            }
+            writeCheckpoint(checkpoint, lineNumber);
+            progress.lastLine = lineNumber;
+        }
+
+        ImportReport report = progress.report();
+        log.info("Imported {} users from {} in {} ms ({} duplicates, {} invalid)", report.imported(), file,
+                report.elapsedMillis(), report.duplicates(), report.invalid());
+        return report;
+    }
+
+    private void submit(Deque<Future<PreparedBatch>> inFlight, List<ImportedUser> batch, long lastLine) {
+        if (!batch.isEmpty()) {
+            inFlight.addLast(hashingPool.submit(() -> prepare(batch, lastLine)));
+        }
+    }
+
+    private PreparedBatch prepare(List<ImportedUser> batch, long lastLine) {
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                EXISTING_EMAILS.formatted(placeholders(batch.size())), String.class,
+                batch.stream().map(ImportedUser::email).toArray()));
+
+        Map<String, ImportedUser> fresh = new HashMap<>();
+        for (ImportedUser user : batch) {
+            if (!existing.contains(user.email())) {
+                fresh.putIfAbsent(user.email(), user);
+            }
+        }
+        List<Object[]> rows = fresh.values().parallelStream()
+                .map(user -> new Object[]{user.email(), encodedPassword(user), user.firstName(), user.lastName(),
+                        Date.valueOf(user.dateOfBirth()), user.gender().name()})
+                .toList();
+        return new PreparedBatch(lastLine, rows, batch.size() - rows.size());
+    }
+
+    private void write(Future<PreparedBatch> pending, Path checkpoint, Progress progress) throws IOException {
+        PreparedBatch batch;
+        try {
+            batch = pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User import was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Preparing a user batch failed", e.getCause());
+        }
+
+        int imported = 0;
+        if (!batch.rows().isEmpty()) {
+            for (int[] counts : jdbcTemplate.batchUpdate(INSERT_USER, batch.rows(), batch.rows().size(),
+                    (statement, row) -> {
+                        for (int i = 0; i < row.length; i++) {
+                            statement.setObject(i + 1, row[i]);
+                        }
+                    })) {
+                for (int count : counts) {
+                    imported += count > 0 || count == Statement.SUCCESS_NO_INFO ? 1 : 0;
+                }
+            }
+            Object[] emails = batch.rows().stream().map(row -> row[0]).toArray();
+            jdbcTemplate.update(INSERT_PROFILES.formatted(placeholders(emails.length)), emails);
+            jdbcTemplate.query(IMPORTED_USERS.formatted(placeholders(emails.length)), resultSet -> {
+                userSearchIndex.put(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3));
+            }, emails);
+        }
+        writeCheckpoint(checkpoint, batch.lastLine());
+
+        progress.imported += imported;
+        progress.duplicates += batch.rows().size() - imported + batch.duplicates();
+        progress.lastLine = batch.lastLine();
+        progress.maybeLog(progressIntervalMillis);
+    }
+
+    private String encodedPassword(ImportedUser user) {
+        if (user.passwordHash() != null && BCRYPT_HASH.matcher(user.passwordHash()).matches()) {
+            return user.passwordHash();
+        }
+        return passwordEncoder.encode(user.password());
+    }
+
+    private ImportedUser parse(String line, List<String> header) {
+        try {
+            ImportedUser user;
+            if (header == null) {
+                user = objectMapper.readValue(line, ImportedUser.class);
+            } else {
+                List<String> values = parseCsvLine(line);
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < header.size() && i < values.size(); i++) {
+                    fields.put(header.get(i), values.get(i).isEmpty() ? null : values.get(i));
+                }
+                user = new ImportedUser(fields.get("email"), fields.get("password"), fields.get("passwordHash"),
+                        fields.get("firstName"), fields.get("lastName"),
+                        fields.get("dateOfBirth") == null ? null : LocalDate.parse(fields.get("dateOfBirth")),
+                        fields.get("gender") == null ? null : Gender.valueOf(fields.get("gender")));
+            }
+            return user.isValid() ? user : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString().trim());
+        return values;
+    }
+
+    private static void writeCheckpoint(Path checkpoint, long lastLine) throws IOException {
+        Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(temporary, Long.toString(lastLine));
+        try {
+            Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    public record ImportedUser(String email, String password, String passwordHash, String firstName,
+                               String lastName, LocalDate dateOfBirth, Gender gender) {
+
+        private boolean isValid() {
+            return email != null && !email.isBlank() && firstName != null && lastName != null
+                    && dateOfBirth != null && gender != null && (password != null || passwordHash != null);
+        }
+    }
+
+    public record ImportReport(long imported, long duplicates, long invalid, long lastLine, long elapsedMillis) {
+    }
+
+    private record PreparedBatch(long lastLine, List<Object[]> rows, int duplicates) {
+    }
+
+    private static final class Progress {
+        private final Path file;
+        private final long started = System.currentTimeMillis();
+        private long lastLogged = started;
+        private long imported;
+        private long duplicates;
+        private long invalid;
+        private long lastLine;
+
+        private Progress(Path file, long lastLine) {
+            this.file = file;
+            this.lastLine = lastLine;
+        }
+
+        private void maybeLog(long intervalMillis) {
+            long now = System.currentTimeMillis();
+            if (now - lastLogged >= intervalMillis) {
+                lastLogged = now;
+                log.info("Importing {}: line {}, {} imported ({} per second), {} duplicates, {} invalid", file,
+                        lastLine, imported, imported * 1000 / Math.max(1, now - started), duplicates, invalid);
+            }
+        }
+
+        private ImportReport report() {
+            return new ImportReport(imported, duplicates, invalid, lastLine, System.currentTimeMillis() - started);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.nathandekeyrel.kismet.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,12 +10,27 @@ import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-    List<User> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
 
-    @Query(value = "SELECT * FROM users u WHERE u.id != :currentUserId AND u.id NOT IN " +
+    @Query("SELECT u FROM User u WHERE u.id <> :excludeUserId AND " +
+           "(LOWER(u.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "AND NOT EXISTS (SELECT f FROM Friendship f WHERE f.status = 'BLOCKED' AND " +
+           "((f.requester.id = :excludeUserId AND f.addressee.id = u.id) OR (f.addressee.id = :excludeUserId AND f.requester.id = u.id))) " +
+           "ORDER BY u.lastName, u.firstName, u.id")
+    List<User> searchByName(@Param("query") String query, @Param("excludeUserId") Long excludeUserId, Pageable pageable);
+
+    @Query(value = "SELECT u.id FROM users u WHERE u.id != :currentUserId AND u.id NOT IN " +
                    "(SELECT ma.target_id FROM match_actions ma WHERE ma.actor_id = :currentUserId) " +
+                   "AND NOT EXISTS (SELECT 1 FROM friendships f WHERE f.status = 'BLOCKED' AND " +
+                   "((f.requester_id = :currentUserId AND f.addressee_id = u.id) " +
+                   "OR (f.addressee_id = :currentUserId AND f.requester_id = u.id))) " +
                    "ORDER BY RANDOM() LIMIT 1", nativeQuery = true)
-    Optional<User> findRandomUserNotInteractedWith(@Param("currentUserId") Long currentUserId);
+    Optional<Long> findRandomUserIdNotInteractedWith(@Param("currentUserId") Long currentUserId);
+
+    @Query(value = "SELECT u.id FROM users u WHERE u.id > :afterId ORDER BY u.id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    long findMaxId();
 
     boolean existsByEmail(String email);
 }
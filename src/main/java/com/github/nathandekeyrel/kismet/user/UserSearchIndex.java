@@ -0,0 +1,327 @@
+package com.github.nathandekeyrel.kismet.user;
+
+import com.github.nathandekeyrel.kismet.common.LongIntHashMap;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    public static final int GRAM_LENGTH = 3;
+
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final String USERS_QUERY = "SELECT id, first_name, last_name FROM users";
+
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingInt(Match::rank)
+            .thenComparing(match -> match.name().lastName())
+            .thenComparing(match -> match.name().firstName())
+            .thenComparingInt(Match::userId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object mutationLock = new Object();
+
+    private volatile Index index = new Index();
+    private volatile boolean ready;
+    private List<NameChange> changesDuringReload;
+
+    public UserSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<List<Long>> search(String query, LongPredicate excluded, int offset, int limit) {
+        String normalized = normalize(query);
+        if (!ready || normalized.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+
+        List<Match> matches;
+        lock.readLock().lock();
+        try {
+            matches = index.topMatches(normalized, excluded, offset + limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(BEST_FIRST);
+        List<Long> page = new ArrayList<>(limit);
+        for (int i = offset; i < matches.size() && page.size() < limit; i++) {
+            page.add((long) matches.get(i).userId());
+        }
+        return Optional.of(page);
+    }
+
+    public void put(Long userId, String firstName, String lastName) {
+        NameChange change = new NameChange(Math.toIntExact(userId),
+                new IndexedName(normalize(firstName), normalize(lastName)));
+        synchronized (mutationLock) {
+            lock.writeLock().lock();
+            try {
+                index.put(change.userId(), change.name());
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        }
+    }
+
+    public boolean contains(Long userId) {
+        lock.readLock().lock();
+        try {
+            return index.contains(Math.toIntExact(userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Users registered or renamed on other nodes only reach this one through the reload
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${kismet.search.refresh-interval:PT5M}",
+               initialDelayString = "${kismet.search.refresh-interval:PT5M}")
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        synchronized (mutationLock) {
+            changesDuringReload = new ArrayList<>();
+        }
+
+        Index loaded = new Index();
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(USERS_QUERY);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> loaded.put(Math.toIntExact(resultSet.getLong(1)),
+                    new IndexedName(normalize(resultSet.getString(2)), normalize(resultSet.getString(3)))));
+        } catch (RuntimeException e) {
+            synchronized (mutationLock) {
+                changesDuringReload = null;
+            }
+            throw e;
+        }
+
+        synchronized (mutationLock) {
+            for (NameChange change : changesDuringReload) {
+                loaded.put(change.userId(), change.name());
+            }
+            changesDuringReload = null;
+            lock.writeLock().lock();
+            try {
+                index = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (!ready) {
+            ready = true;
+            log.info("Indexed {} user names for search in {} ms", loaded.size, System.currentTimeMillis() - started);
+        } else {
+            log.debug("Reindexed {} user names for search in {} ms", loaded.size,
+                    System.currentTimeMillis() - started);
+        }
+    }
+
+    private static boolean containsAll(List<Postings> lists, int id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int rank(IndexedName name, String query) {
+        int rank = Math.min(rank(name.firstName(), query), rank(name.lastName(), query));
+        return rank == Integer.MAX_VALUE ? -1 : rank;
+    }
+
+    private static int rank(String field, String query) {
+        int position = field.indexOf(query);
+        if (position < 0) {
+            return Integer.MAX_VALUE;
+        }
+        if (position == 0) {
+            return field.length() == query.length() ? EXACT : PREFIX;
+        }
+        do {
+            if (!Character.isLetterOrDigit(field.charAt(position - 1))) {
+                return WORD_PREFIX;
+            }
+            position = field.indexOf(query, position + 1);
+        } while (position > 0);
+        return SUBSTRING;
+    }
+
+    private static Set<Long> grams(IndexedName name) {
+        Set<Long> grams = grams(name.firstName());
+        grams.addAll(grams(name.lastName()));
+        return grams;
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record IndexedName(String firstName, String lastName) {
+    }
+
+    private record Match(int userId, int rank, IndexedName name) {
+    }
+
+    private record NameChange(int userId, IndexedName name) {
+    }
+
+    // User ids come from a sequence, so names sit in an array indexed by id and each gram maps to a slot in a
+    // list of postings: no boxed keys or map entries per user
+    private static final class Index {
+        private final LongIntHashMap gramSlots = new LongIntHashMap();
+        private final List<Postings> postings = new ArrayList<>();
+        private IndexedName[] names = new IndexedName[1024];
+        private int size;
+
+        private void put(int id, IndexedName name) {
+            if (id >= names.length) {
+                names = Arrays.copyOf(names, Math.max(id + 1, names.length + (names.length >> 1)));
+            }
+            IndexedName previous = names[id];
+            names[id] = name;
+            if (previous == null) {
+                size++;
+            } else {
+                for (long gram : grams(previous)) {
+                    int slot = gramSlots.get(gram, -1);
+                    if (slot >= 0) {
+                        postings.get(slot).remove(id);
+                    }
+                }
+            }
+            for (long gram : grams(name)) {
+                int slot = gramSlots.get(gram, -1);
+                if (slot < 0) {
+                    slot = postings.size();
+                    postings.add(new Postings());
+                    gramSlots.put(gram, slot);
+                }
+                postings.get(slot).add(id);
+            }
+        }
+
+        private boolean contains(int id) {
+            return id >= 0 && id < names.length && names[id] != null;
+        }
+
+        private List<Match> topMatches(String query, LongPredicate excluded, int wanted) {
+            List<Postings> lists = new ArrayList<>();
+            for (long gram : grams(query)) {
+                int slot = gramSlots.get(gram, -1);
+                if (slot < 0 || postings.get(slot).size == 0) {
+                    return new ArrayList<>();
+                }
+                lists.add(postings.get(slot));
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            PriorityQueue<Match> best = new PriorityQueue<>(wanted + 1, BEST_FIRST.reversed());
+            Postings smallest = lists.getFirst();
+            for (int i = 0; i < smallest.size; i++) {
+                int id = smallest.ids[i];
+                if (!containsAll(lists, id) || excluded.test(id)) {
+                    continue;
+                }
+                IndexedName name = names[id];
+                int rank = rank(name, query);
+                if (rank < 0) {
+                    continue;
+                }
+                best.offer(new Match(id, rank, name));
+                if (best.size() > wanted) {
+                    best.poll();
+                }
+            }
+            return new ArrayList<>(best);
+        }
+    }
+
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private boolean remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        private boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+}
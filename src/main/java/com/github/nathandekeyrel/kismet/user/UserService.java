@@ -1,23 +1,42 @@
 package com.github.nathandekeyrel.kismet.user;
 
+import com.github.nathandekeyrel.kismet.friendship.BlockList;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.security.Principal;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserSearchIndex userSearchIndex;
+    private final UserCache userCache;
+    private final BlockList blockList;
+    private final int searchPageSize;
+    private final int searchMaxResults;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserSearchIndex userSearchIndex, UserCache userCache,
+                       BlockList blockList,
+                       @Value("${kismet.search.page-size:20}") int searchPageSize,
+                       @Value("${kismet.search.max-results:200}") int searchMaxResults) {
         this.userRepository = userRepository;
+        this.userSearchIndex = userSearchIndex;
+        this.userCache = userCache;
+        this.blockList = blockList;
+        this.searchPageSize = searchPageSize;
+        this.searchMaxResults = searchMaxResults;
     }
 
     public User getUser(String email) {
-        User user = userRepository.findByEmail(email)
+        User user = userCache.findByEmail(email, userRepository::findByEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         return user;
     }
@@ -27,17 +46,70 @@ public class UserService {
     }
 
     public User getUserById(Long id) {
-        User user = userRepository.findById(id)
+        User user = userCache.findById(id, userRepository::findById)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         return user;
     }
 
-    public List<User> getByFirstOrLastName(String query) {
-        return userRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(query, query);
+    public Optional<User> findUserReference(Long id) {
+        Optional<User> cached = userCache.findById(id, key -> Optional.empty());
+        if (cached.isPresent()) {
+            return cached;
+        }
+        // Users are never deleted, so an id the name index has seen needs no query
+        if (!userSearchIndex.contains(id) && !userRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        return Optional.of(userRepository.getReferenceById(id));
     }
 
-    public Optional<User> getRandomUser(User currentUser) {
-        return userRepository.findRandomUserNotInteractedWith(currentUser.getId());
+    public Optional<User> findUserById(Long id) {
+        return userRepository.findById(id);
+    }
+
+    public List<User> getUsersByIds(List<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
+
+    public List<User> searchByName(String query, Long excludeUserId, int page) {
+        int offset = Math.max(0, page) * searchPageSize;
+        int limit = Math.min(searchPageSize, searchMaxResults - offset);
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        Optional<List<Long>> rankedIds = userSearchIndex.search(query,
+                id -> id == excludeUserId || blockList.isBlocked(excludeUserId, id), offset, limit);
+        if (rankedIds.isPresent()) {
+            return getUsersInOrder(rankedIds.get());
+        }
+        return userRepository.searchByName(query, excludeUserId, PageRequest.of(Math.max(0, page), searchPageSize));
+    }
+
+    public int getSearchPageSize() {
+        return searchPageSize;
+    }
+
+    private List<User> getUsersInOrder(List<Long> ids) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        List<User> users = userRepository.findAllById(ids);
+        users.sort(Comparator.comparing(user -> positions.get(user.getId())));
+        return users;
+    }
+
+    public Optional<Long> getRandomUserId(User currentUser) {
+        return userRepository.findRandomUserIdNotInteractedWith(currentUser.getId());
+    }
+
+    public List<Long> getUserIdsAfter(Long afterId, int limit) {
+        return userRepository.findIdsAfter(afterId, limit);
+    }
+
+    public long getMaxUserId() {
+        return userRepository.findMaxId();
     }
 
     public boolean existsByEmail(String email) {
@@ -46,5 +118,7 @@ public class UserService {
 
     public void save(User user) {
         userRepository.save(user);
+        userCache.invalidate(user);
+        userSearchIndex.put(user.getId(), user.getFirstName(), user.getLastName());
     }
 }
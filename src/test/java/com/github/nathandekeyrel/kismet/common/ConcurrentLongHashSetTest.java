@@ -0,0 +1,70 @@
+package com.github.nathandekeyrel.kismet.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentLongHashSetTest {
+
+    @Test
+    void behavesLikeAHashSet() {
+        ConcurrentLongHashSet set = new ConcurrentLongHashSet(4);
+        Set<Long> reference = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000) - 100;
+            if (random.nextBoolean()) {
+                assertEquals(reference.add(key), set.add(key));
+            } else {
+                assertEquals(reference.remove(key), set.remove(key));
+            }
+        }
+
+        assertEquals(reference.size(), set.size());
+        for (long key = -100; key < 4_900; key++) {
+            assertEquals(reference.contains(key), set.contains(key));
+        }
+
+        Set<Long> iterated = new HashSet<>();
+        set.forEach(iterated::add);
+        assertEquals(reference, iterated);
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        ConcurrentLongHashSet set = new ConcurrentLongHashSet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                long offset = thread * 100_000L;
+                futures.add(executor.submit(() -> {
+                    for (long key = 0; key < 50_000; key++) {
+                        set.add(offset + key);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(400_000, set.size());
+        assertTrue(set.contains(700_000L + 49_999));
+        assertFalse(set.contains(50_000L));
+    }
+}
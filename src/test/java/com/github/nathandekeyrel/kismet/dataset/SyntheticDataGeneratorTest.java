@@ -0,0 +1,61 @@
+package com.github.nathandekeyrel.kismet.dataset;
+
+import com.github.nathandekeyrel.kismet.dataset.SyntheticDataGenerator.DatasetReport;
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "kismet.dataset.batch-size=64")
+public class SyntheticDataGeneratorTest {
+
+    private static final String SYNTHETIC = " WHERE u.email LIKE '%" + SyntheticDataGenerator.EMAIL_DOMAIN + "'";
+    private static final String SWIPES =
+            "SELECT COUNT(*) FROM match_actions a JOIN users u ON u.id = a.actor_id" + SYNTHETIC;
+
+    @Autowired
+    private SyntheticDataGenerator syntheticDataGenerator;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void generatesLoginableUsersWithProfilesSwipesAndFriendsOnlyOnce() {
+        DatasetReport report = syntheticDataGenerator.generate(300, 7L);
+
+        assertEquals(300, report.users());
+        assertTrue(report.swipes() > 300 && report.matches() > 0 && report.friendships() > 0, report.toString());
+        User user = userService.getUser(SyntheticDataGenerator.email(0));
+        assertTrue(passwordEncoder.matches("synthetic", user.getPassword()));
+        assertEquals(300, count("SELECT COUNT(*) FROM profiles p JOIN users u ON u.id = p.user_id" + SYNTHETIC));
+        assertEquals(report.swipes(), count(SWIPES));
+        assertEquals(0, count("SELECT COUNT(*) FROM (SELECT actor_id, target_id FROM match_actions a " +
+                              "JOIN users u ON u.id = a.actor_id" + SYNTHETIC +
+                              " GROUP BY actor_id, target_id HAVING COUNT(*) > 1)"));
+        assertEquals(report.matches(), count("SELECT COUNT(*) FROM mutual_matches m " +
+                                             "JOIN users u ON u.id = m.user_one_id" + SYNTHETIC));
+
+        DatasetReport again = syntheticDataGenerator.generate(300, 7L);
+        assertEquals(0, again.swipes());
+        assertEquals(report.swipes(), count(SWIPES));
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        assertNotNull(count);
+        return count;
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.nathandekeyrel.kismet.friendship;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FriendGraphTest {
+
+    private final FriendGraph sequential = new FriendGraph(null, Integer.MAX_VALUE, 1);
+    private final FriendGraph parallel = new FriendGraph(null, 8, 4);
+
+    @AfterEach
+    void tearDown() {
+        sequential.shutdown();
+        parallel.shutdown();
+    }
+
+    @Test
+    void parallelSuggestionsMatchSequentialOnes() {
+        Random random = new Random(7);
+        for (long user = 2; user <= 2_000; user++) {
+            int edges = 1 + random.nextInt(3);
+            for (int i = 0; i < edges; i++) {
+                long friend = 1 + (long) Math.floor(Math.pow(random.nextDouble(), 3) * (user - 1));
+                sequential.addFriendship(user, friend);
+                parallel.addFriendship(user, friend);
+            }
+        }
+
+        for (long user = 1; user <= 50; user++) {
+            List<FriendGraph.Suggestion> expected = sequential.suggest(user, 20);
+            assertEquals(expected, parallel.suggest(user, 20));
+            for (FriendGraph.Suggestion suggestion : expected) {
+                assertFalse(sequential.areFriends(user, suggestion.userId()));
+                assertEquals(sequential.countMutualFriends(user, suggestion.userId()), suggestion.mutualFriends());
+            }
+        }
+    }
+
+    @Test
+    void removingAFriendshipUpdatesBothSides() {
+        sequential.addFriendship(1L, 2L);
+        sequential.addFriendship(1L, 3L);
+        assertTrue(sequential.areFriends(2L, 1L));
+
+        sequential.removeFriendship(2L, 1L);
+
+        assertFalse(sequential.areFriends(1L, 2L));
+        assertEquals(List.of(3L), sequential.getFriendIds(1L));
+        assertTrue(sequential.getFriendIds(2L).isEmpty());
+    }
+}
@@ -1,4 +1,81 @@
 package com.github.nathandekeyrel.kismet.friendship;
 
+import com.github.nathandekeyrel.kismet.user.Gender;
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static com.github.nathandekeyrel.kismet.monitoring.SqlResultMatchers.sql;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
 public class FriendshipControllerTest {
-}
\ No newline at end of file
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Test
+    void searchResultsOfferToAcceptIncomingRequests() throws Exception {
+        String lastName = "Zq" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+        User searcher = createUser("Searcher", lastName);
+        User inviter = createUser("Inviter", lastName);
+        friendshipService.addFriend(inviter, searcher);
+
+        MvcResult result = mockMvc.perform(get("/friends/search").param("query", lastName)
+                        .with(user(searcher.getEmail())))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Inviter " + lastName)))
+                .andExpect(content().string(containsString("name=\"addresseeId\" value=\"" + inviter.getId() + "\"")))
+                .andReturn();
+
+        RelationshipStatuses statuses = (RelationshipStatuses) result.getModelAndView().getModel().get("statuses");
+        assertEquals(RelationshipStatus.REQUEST_RECEIVED, statuses.get(inviter.getId()));
+    }
+
+    @Test
+    void friendsPageLoadsRequestsAndBlocksWithoutAQueryPerRow() throws Exception {
+        User owner = createUser("Owner", "Tester");
+        for (int i = 0; i < 4; i++) {
+            friendshipService.addFriend(createUser("Requester" + i, "Tester"), owner);
+            friendshipService.blockUser(owner, createUser("Blocked" + i, "Tester"));
+        }
+
+        mockMvc.perform(get("/friends").with(user(owner.getEmail())))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Requester3 Tester")))
+                .andExpect(sql().noRepeatedStatements())
+                .andExpect(sql().statementsAtMost(4));
+    }
+
+    private User createUser(String firstName, String lastName) {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setDateOfBirth(LocalDate.of(1995, 1, 1));
+        user.setGender(Gender.FEMALE);
+        userService.save(user);
+        return user;
+    }
+}
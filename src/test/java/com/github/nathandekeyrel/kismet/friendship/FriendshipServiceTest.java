@@ -1,4 +1,187 @@
 package com.github.nathandekeyrel.kismet.friendship;
 
+import com.github.nathandekeyrel.kismet.user.Gender;
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
 public class FriendshipServiceTest {
-}
\ No newline at end of file
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BlockList blockList;
+
+    @Autowired
+    private FriendGraph friendGraph;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void acceptedFriendsAppearInTheGraphAndDriveSuggestions() {
+        User ana = createUser("Ana");
+        User ben = createUser("Ben");
+        User cat = createUser("Cat");
+        User dev = createUser("Dev");
+        befriend(ana, ben);
+        befriend(ana, cat);
+        befriend(ben, dev);
+        befriend(cat, dev);
+
+        assertEquals(Set.of(ben.getId(), cat.getId()),
+                friendshipService.getFriends(ana).stream().map(User::getId).collect(Collectors.toSet()));
+
+        List<FriendSuggestion> suggestions = friendshipService.getSuggestions(ana);
+        assertEquals(dev.getId(), suggestions.getFirst().user().getId());
+        assertEquals(2, suggestions.getFirst().mutualFriends());
+    }
+
+    @Test
+    void suggestionsSkipBlockedUsersAndPendingRequests() {
+        User sam = createUser("Sam");
+        User hub = createUser("Hub");
+        User blocked = createUser("Blocked");
+        User blocker = createUser("Blocker");
+        User invited = createUser("Invited");
+        User inviter = createUser("Inviter");
+        User stranger = createUser("Stranger");
+        for (User other : List.of(sam, blocked, blocker, invited, inviter, stranger)) {
+            befriend(hub, other);
+        }
+        friendshipService.blockUser(sam, blocked);
+        friendshipService.blockUser(blocker, sam);
+        friendshipService.addFriend(sam, invited);
+        friendshipService.addFriend(inviter, sam);
+
+        assertEquals(List.of(stranger.getId()), friendshipService.getSuggestions(sam).stream()
+                .map(suggestion -> suggestion.user().getId()).toList());
+    }
+
+    @Test
+    void decliningARequestDoesNotAddAFriend() {
+        User eve = createUser("Eve");
+        User fin = createUser("Fin");
+        assertEquals("sent", friendshipService.addFriend(eve, fin));
+
+        Friendship request = friendshipService.getFriendRequests(fin).getFirst();
+        friendshipService.declineFriendRequest(request.getId(), fin);
+
+        assertTrue(friendshipService.getFriends(eve).isEmpty());
+        assertTrue(friendshipService.getFriendRequests(fin).isEmpty());
+    }
+
+    @Test
+    void statusesForResolvesEveryRelationshipInOneLookup() {
+        User gil = createUser("Gil");
+        User friend = createUser("Hana");
+        User invited = createUser("Ivo");
+        User inviter = createUser("Jia");
+        User stranger = createUser("Kai");
+        befriend(gil, friend);
+        friendshipService.addFriend(gil, invited);
+        friendshipService.addFriend(inviter, gil);
+
+        RelationshipStatuses statuses = friendshipService.statusesFor(gil,
+                List.of(friend.getId(), invited.getId(), inviter.getId(), stranger.getId()));
+
+        assertEquals(RelationshipStatus.FRIENDS, statuses.get(friend.getId()));
+        assertEquals(RelationshipStatus.REQUEST_SENT, statuses.get(invited.getId()));
+        assertEquals(RelationshipStatus.REQUEST_RECEIVED, statuses.get(inviter.getId()));
+        assertEquals(RelationshipStatus.NONE, statuses.get(stranger.getId()));
+    }
+
+    @Test
+    void blockingEndsTheFriendshipAndStopsRequestsAndSearchResults() {
+        String lastName = "Zb" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+        User lea = createUser("Lea", lastName);
+        User max = createUser("Max", lastName);
+        befriend(lea, max);
+
+        friendshipService.blockUser(lea, max);
+
+        assertTrue(friendshipService.getFriends(lea).isEmpty());
+        assertEquals("blocked", friendshipService.addFriend(max, lea));
+        assertEquals("blocked", friendshipService.addFriend(lea, max));
+        assertTrue(friendshipService.searchUsers(lastName, max, 0).isEmpty());
+        assertTrue(friendshipService.searchUsers(lastName.substring(0, 2), max, 0).stream()
+                .noneMatch(user -> user.getId().equals(lea.getId())));
+        assertEquals(RelationshipStatus.BLOCKED, friendshipService.statusesFor(lea, List.of(max.getId())).get(max.getId()));
+
+        friendshipService.unblockUser(lea, max);
+
+        assertEquals("sent", friendshipService.addFriend(max, lea));
+    }
+
+    @Test
+    void blocksWrittenByAnotherNodeAreSeenAfterReload() {
+        User ned = createUser("Ned");
+        User oli = createUser("Oli");
+        jdbcTemplate.update("INSERT INTO friendships (requester_id, addressee_id, status) VALUES (?, ?, 'BLOCKED')",
+                ned.getId(), oli.getId());
+        assertFalse(blockList.isBlocked(oli.getId(), ned.getId()));
+
+        blockList.reload();
+
+        assertTrue(blockList.isBlocked(oli.getId(), ned.getId()));
+        friendshipService.unblockUser(ned, oli);
+        blockList.reload();
+        assertFalse(blockList.isBlocked(ned.getId(), oli.getId()));
+    }
+
+    @Test
+    void friendshipsChangedByAnotherNodeAreSeenAfterReload() {
+        User pia = createUser("Pia");
+        User quinn = createUser("Quinn");
+        User ray = createUser("Ray");
+        befriend(pia, ray);
+        jdbcTemplate.update("INSERT INTO friendships (requester_id, addressee_id, status) VALUES (?, ?, 'ACCEPTED')",
+                pia.getId(), quinn.getId());
+        jdbcTemplate.update("DELETE FROM friendships WHERE requester_id = ? AND addressee_id = ?",
+                pia.getId(), ray.getId());
+
+        friendGraph.rebuild();
+
+        assertTrue(friendGraph.areFriends(quinn.getId(), pia.getId()));
+        assertFalse(friendGraph.areFriends(pia.getId(), ray.getId()));
+    }
+
+    private void befriend(User requester, User addressee) {
+        friendshipService.addFriend(requester, addressee);
+        assertEquals("accepted", friendshipService.addFriend(addressee, requester));
+    }
+
+    private User createUser(String firstName) {
+        return createUser(firstName, "Friend" + UUID.randomUUID().toString().substring(0, 8));
+    }
+
+    private User createUser(String firstName, String lastName) {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setDateOfBirth(LocalDate.of(1995, 1, 1));
+        user.setGender(Gender.FEMALE);
+        userService.save(user);
+        return user;
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.nathandekeyrel.kismet.user.Gender;
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "kismet.swipes.write-behind.enabled=true",
+        "kismet.swipes.write-behind.flush-interval=500ms"
+})
+@ExtendWith(OutputCaptureExtension.class)
+public class BatchedSwipeWriterTest {
+
+    private static final String DRAIN_TIMEOUT_MESSAGE = "Swipe writer did not drain";
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BatchedSwipeWriter batchedSwipeWriter;
+
+    @Autowired
+    private MatchActionRepository matchActionRepository;
+
+    @Autowired
+    private SwipeHistoryIndex swipeHistoryIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void queuedSwipesAreFlushedAndStillCompleteMutualMatches() throws InterruptedException {
+        User alice = createUser();
+        User bob = createUser();
+        User carol = createUser();
+
+        matchService.recordAction(alice, carol, ActionType.PASS);
+        matchService.recordAction(alice, bob, ActionType.LIKE);
+        matchService.recordAction(bob, alice, ActionType.LIKE);
+
+        assertTrue(matchService.findMatchBetween(alice, bob).isPresent());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((batchedSwipeWriter.getQueueSize() > 0 || !batchedSwipeWriter.pendingTargets(alice.getId()).isEmpty())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(2, matchActionRepository.findTargetIdsByActorId(alice.getId()).size());
+        assertEquals(1, matchActionRepository.findTargetIdsByActorId(bob.getId()).size());
+    }
+
+    @Test
+    void swipesStillQueuedSurviveReloadingTheSwipeHistory() {
+        User alice = createUser();
+        User bob = createUser();
+
+        matchService.recordAction(alice, bob, ActionType.PASS);
+        swipeHistoryIndex.evict(alice.getId());
+
+        assertTrue(swipeHistoryIndex.hasSwiped(alice.getId(), bob.getId()));
+    }
+
+    @Test
+    void stoppingWritesEverySwipeAlreadyQueuedAndRefusesNewOnes(CapturedOutput output) throws InterruptedException {
+        User alice = createUser();
+        User bob = createUser();
+        User carol = createUser();
+        BatchedSwipeWriter writer = new BatchedSwipeWriter(jdbcTemplate, true, 100, 500, Duration.ofMillis(10),
+                Duration.ofMillis(10), Duration.ofSeconds(5));
+        writer.start();
+
+        assertTrue(writer.enqueue(alice.getId(), bob.getId(), ActionType.PASS));
+        assertTrue(writer.enqueue(alice.getId(), carol.getId(), ActionType.PASS));
+        writer.stop();
+
+        assertFalse(writer.enqueue(bob.getId(), carol.getId(), ActionType.PASS));
+        assertEquals(2, matchActionRepository.findTargetIdsByActorId(alice.getId()).size());
+        assertTrue(writer.pendingTargets(alice.getId()).isEmpty());
+        assertFalse(output.getAll().contains(DRAIN_TIMEOUT_MESSAGE));
+    }
+
+    @Test
+    void stoppingPastTheShutdownTimeoutInterruptsTheWriterAndStillWritesTheQueue(CapturedOutput output)
+            throws InterruptedException {
+        User alice = createUser();
+        User bob = createUser();
+        User carol = createUser();
+        // The writer sits in a ten second batch window, well past the shutdown timeout
+        BatchedSwipeWriter writer = new BatchedSwipeWriter(jdbcTemplate, true, 100, 500, Duration.ofSeconds(10),
+                Duration.ofMillis(10), Duration.ofMillis(100));
+        writer.start();
+
+        assertTrue(writer.enqueue(alice.getId(), bob.getId(), ActionType.PASS));
+        assertTrue(writer.enqueue(alice.getId(), carol.getId(), ActionType.PASS));
+        writer.stop();
+
+        assertTrue(output.getAll().contains(DRAIN_TIMEOUT_MESSAGE));
+        assertEquals(2, matchActionRepository.findTargetIdsByActorId(alice.getId()).size());
+        assertTrue(writer.pendingTargets(alice.getId()).isEmpty());
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setDateOfBirth(LocalDate.of(1995, 1, 1));
+        user.setGender(Gender.MALE);
+        userService.save(user);
+        return user;
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.nathandekeyrel.kismet.matching;
+
+import com.github.nathandekeyrel.kismet.profile.PromptType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompatibilityCandidateRankerTest {
+
+    private ProfileFeatureIndex featureIndex;
+    private CompatibilityCandidateRanker ranker;
+
+    @BeforeEach
+    void setUp() {
+        featureIndex = new ProfileFeatureIndex(null, 10_000);
+        ranker = new CompatibilityCandidateRanker(featureIndex, 64, 2);
+
+        long now = System.currentTimeMillis();
+        featureIndex.put(1L, "Climbing and coffee", Map.of(
+                PromptType.PASSIONATE_ABOUT, "Bouldering, alpine climbing and espresso",
+                PromptType.PERFECT_DAY, "Early hike then a long coffee"), now);
+        featureIndex.put(2L, "Board games", Map.of(
+                PromptType.PASSIONATE_ABOUT, "Chess openings and board games"), now);
+        featureIndex.put(3L, "Coffee snob who loves climbing", Map.of(
+                PromptType.PASSIONATE_ABOUT, "Alpine climbing and bouldering",
+                PromptType.PERFECT_DAY, "Long hike, then coffee"), now);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ranker.shutdown();
+    }
+
+    @Test
+    void similarAnswersRankFirst() {
+        List<Long> ranked = ranker.rank(1L, List.of(2L, 3L));
+
+        assertEquals(List.of(3L, 2L), ranked);
+    }
+
+    @Test
+    void featuresKeepOnlyTheHashedTokens() {
+        ProfileFeatureIndex.ProfileFeatures features = ProfileFeatureIndex.vectorize("Coffee snob",
+                Map.of(PromptType.PASSIONATE_ABOUT, "Alpine climbing"), 0L);
+
+        assertTrue(features.answers().length <= 2);
+        assertTrue(features.bio().length <= 2);
+        assertTrue(features.bio().length > 0);
+    }
+
+    @Test
+    void parallelScoringRanksTheSameCandidates() {
+        List<Long> candidates = new ArrayList<>();
+        for (long id = 100; id < 400; id++) {
+            featureIndex.put(id, "", Map.of(PromptType.DATING_ME, "Like a quiet board game night " + id), 0L);
+            candidates.add(id);
+        }
+        candidates.add(3L);
+
+        List<Long> ranked = ranker.rank(1L, candidates);
+
+        assertEquals(candidates.size(), ranked.size());
+        assertEquals(3L, ranked.getFirst());
+    }
+}
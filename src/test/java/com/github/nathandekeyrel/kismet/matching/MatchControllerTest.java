@@ -1,4 +1,187 @@
 package com.github.nathandekeyrel.kismet.matching;
 
+import com.github.nathandekeyrel.kismet.profile.Profile;
+import com.github.nathandekeyrel.kismet.profile.ProfileAnswer;
+import com.github.nathandekeyrel.kismet.profile.ProfileAnswerRepository;
+import com.github.nathandekeyrel.kismet.profile.ProfileRepository;
+import com.github.nathandekeyrel.kismet.profile.PromptType;
+import com.github.nathandekeyrel.kismet.user.Gender;
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static com.github.nathandekeyrel.kismet.monitoring.SqlResultMatchers.sql;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
 public class MatchControllerTest {
-}
\ No newline at end of file
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private SwipeHistoryIndex swipeHistoryIndex;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private ProfileAnswerRepository profileAnswerRepository;
+
+    @Test
+    void homeRendersACandidateCardInAtMostThreeStatements() throws Exception {
+        User viewer = createUser("Viewer");
+        User candidate = createUser("Candidate");
+        Profile profile = new Profile();
+        profile.setUser(candidate);
+        profile.setBio("Mostly outdoors");
+        profileRepository.save(profile);
+        ProfileAnswer answer = new ProfileAnswer();
+        answer.setProfile(profile);
+        answer.setPromptType(PromptType.PERFECT_DAY);
+        answer.setAnswerText("Sunrise hike");
+        profileAnswerRepository.save(answer);
+        for (Long otherId : userService.getUserIdsAfter(0L, Integer.MAX_VALUE)) {
+            if (!otherId.equals(viewer.getId()) && !otherId.equals(candidate.getId())) {
+                matchService.recordAction(viewer, userService.getUserById(otherId), ActionType.PASS);
+            }
+        }
+
+        mockMvc.perform(get("/home").with(user(viewer.getEmail()))).andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/home").with(user(viewer.getEmail())))
+                .andExpect(status().isOk())
+                .andExpect(sql().statementsAtMost(3))
+                .andReturn();
+
+        CandidateCard card = (CandidateCard) result.getModelAndView().getModel().get("potentialMatch");
+        assertEquals(candidate.getId(), card.id());
+        assertTrue(result.getResponse().getContentAsString().contains("Sunrise hike"));
+    }
+
+    @Test
+    void swipeApiRecordsTheSwipeAndReturnsTheNextCardsInOneRoundTrip() throws Exception {
+        User viewer = createUser("Viewer");
+        User target = createUser("Target");
+        User next = createUser("Next");
+        User after = createUser("After");
+        for (Long otherId : userService.getUserIdsAfter(0L, Integer.MAX_VALUE)) {
+            if (!List.of(viewer.getId(), target.getId(), next.getId(), after.getId()).contains(otherId)) {
+                matchService.recordAction(viewer, userService.getUserById(otherId), ActionType.PASS);
+            }
+        }
+        matchService.recordAction(target, viewer, ActionType.LIKE);
+        mockMvc.perform(get("/api/cards").with(user(viewer.getEmail()))).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/swipes")
+                        .with(user(viewer.getEmail()))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetId\": " + target.getId() + ", \"action\": \"LIKE\", \"count\": 5}"))
+                .andExpect(status().isOk())
+                .andExpect(sql().statementsAtMost(4))
+                .andExpect(jsonPath("$.matched").value(true))
+                .andExpect(jsonPath("$.cards.length()").value(2))
+                .andExpect(jsonPath("$.cards[*].id").value(containsInAnyOrder(
+                        next.getId().intValue(), after.getId().intValue())));
+
+        assertTrue(matchService.findMatchBetween(viewer, target).isPresent());
+
+        mockMvc.perform(get("/api/cards")
+                        .param("exclude", next.getId().toString())
+                        .with(user(viewer.getEmail())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(after.getId()));
+    }
+
+    @Test
+    void swipeApiRejectsUnknownTargetsSelfSwipesAndOversizedBuffers() throws Exception {
+        User viewer = createUser("Viewer");
+        User target = createUser("Target");
+
+        mockMvc.perform(post("/api/swipes")
+                        .with(user(viewer.getEmail()))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetId\": " + (userService.getMaxUserId() + 1000) + ", \"action\": \"PASS\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/swipes")
+                        .with(user(viewer.getEmail()))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetId\": " + viewer.getId() + ", \"action\": \"LIKE\"}"))
+                .andExpect(status().isBadRequest());
+        String[] tooMany = LongStream.rangeClosed(1, 101).mapToObj(Long::toString).toArray(String[]::new);
+        mockMvc.perform(get("/api/cards")
+                        .param("exclude", tooMany)
+                        .with(user(viewer.getEmail())))
+                .andExpect(status().isBadRequest());
+
+        assertFalse(swipeHistoryIndex.hasSwiped(viewer.getId(), viewer.getId()));
+        mockMvc.perform(post("/api/swipes")
+                        .with(user(viewer.getEmail()))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetId\": " + target.getId() + ", \"action\": \"PASS\", \"count\": 0}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void matchesApiReturnsNewestMatchesFirstWithACursor() throws Exception {
+        User viewer = createUser("Viewer");
+        User first = createUser("First");
+        User second = createUser("Second");
+        for (User other : new User[]{first, second}) {
+            matchService.recordAction(viewer, other, ActionType.LIKE);
+            matchService.recordAction(other, viewer, ActionType.LIKE);
+        }
+
+        mockMvc.perform(get("/api/matches").param("size", "1").with(user(viewer.getEmail())))
+                .andExpect(status().isOk())
+                .andExpect(sql().noRepeatedStatements())
+                .andExpect(jsonPath("$.matches.length()").value(1))
+                .andExpect(jsonPath("$.matches[0].userId").value(second.getId()))
+                .andExpect(jsonPath("$.matches[0].firstName").value("Second"))
+                .andExpect(jsonPath("$.nextCursor").isNumber());
+    }
+
+    private User createUser(String firstName) {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName(firstName);
+        user.setLastName("Tester");
+        user.setDateOfBirth(LocalDate.of(1995, 1, 1));
+        user.setGender(Gender.MALE);
+        userService.save(user);
+        return user;
+    }
+}
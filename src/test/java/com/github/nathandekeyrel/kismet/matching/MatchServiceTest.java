@@ -1,4 +1,248 @@
 package com.github.nathandekeyrel.kismet.matching;
 
+import com.github.nathandekeyrel.kismet.friendship.FriendshipService;
+import com.github.nathandekeyrel.kismet.user.Gender;
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
 public class MatchServiceTest {
-}
\ No newline at end of file
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Autowired
+    private MatchActionRepository matchActionRepository;
+
+    @Autowired
+    private MutualMatchRepository mutualMatchRepository;
+
+    @Autowired
+    private LikeIndex likeIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanUp() {
+        mutualMatchRepository.deleteAll();
+        matchActionRepository.deleteAll();
+    }
+
+    @Test
+    void potentialMatchesAreNeverRepeatedAfterSwiping() {
+        User actor = createUser();
+        for (int i = 0; i < 5; i++) {
+            createUser();
+        }
+
+        Set<Long> seen = new HashSet<>();
+        Optional<CandidateCard> candidate = matchService.findPotentialMatch(actor);
+        while (candidate.isPresent()) {
+            Long targetId = candidate.get().id();
+            assertNotEquals(actor.getId(), targetId);
+            assertTrue(seen.add(targetId), "candidate shown twice: " + targetId);
+
+            matchService.recordAction(actor, userService.getUserById(targetId), ActionType.PASS);
+            candidate = matchService.findPotentialMatch(actor);
+        }
+
+        assertTrue(seen.size() >= 5);
+    }
+
+    @Test
+    void usersWhoBlockedTheViewerAreNeverOffered() {
+        User actor = createUser();
+        User blocker = createUser();
+        for (int i = 0; i < 3; i++) {
+            createUser();
+        }
+        friendshipService.blockUser(blocker, actor);
+
+        Optional<CandidateCard> candidate = matchService.findPotentialMatch(actor);
+        while (candidate.isPresent()) {
+            Long targetId = candidate.get().id();
+            assertNotEquals(blocker.getId(), targetId);
+            matchService.recordAction(actor, userService.getUserById(targetId), ActionType.PASS);
+            candidate = matchService.findPotentialMatch(actor);
+        }
+    }
+
+    @Test
+    void usersWhoLikedTheViewerAreInterleavedFirst() {
+        User actor = createUser();
+        User earlyLiker = createUser();
+        User secondLiker = createUser();
+        for (int i = 0; i < 6; i++) {
+            createUser();
+        }
+        matchService.recordAction(earlyLiker, actor, ActionType.LIKE);
+        matchService.recordAction(secondLiker, actor, ActionType.LIKE);
+
+        CandidateCard first = matchService.findPotentialMatch(actor).orElseThrow();
+        assertTrue(Set.of(earlyLiker.getId(), secondLiker.getId()).contains(first.id()));
+        User firstLiker = userService.getUserById(first.id());
+        matchService.recordAction(actor, firstLiker, ActionType.LIKE);
+        assertTrue(matchService.findMatchBetween(actor, firstLiker).isPresent());
+
+        User lateLiker = createUser();
+        matchService.recordAction(lateLiker, actor, ActionType.LIKE);
+        Long remainingLiker = first.id().equals(earlyLiker.getId()) ? secondLiker.getId() : earlyLiker.getId();
+
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            CandidateCard card = matchService.findPotentialMatch(actor).orElseThrow();
+            seen.add(card.id());
+            matchService.recordAction(actor, userService.getUserById(card.id()), ActionType.PASS);
+        }
+        assertTrue(seen.containsAll(Set.of(remainingLiker, lateLiker.getId())));
+    }
+
+    @Test
+    void simultaneousMutualLikesCreateExactlyOneCanonicalMatchPerPair() throws Exception {
+        int userCount = 12;
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            users.add(createUser());
+        }
+
+        List<Callable<Void>> likes = new ArrayList<>();
+        for (User actor : users) {
+            for (User target : users) {
+                if (!actor.equals(target)) {
+                    likes.add(() -> {
+                        matchService.recordAction(actor, target, ActionType.LIKE);
+                        return null;
+                    });
+                }
+            }
+        }
+        Collections.shuffle(likes, new Random(7));
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (Future<Void> future : executor.invokeAll(likes)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<MutualMatch> matches = mutualMatchRepository.findAll();
+        assertEquals(userCount * (userCount - 1) / 2, matches.size());
+        for (MutualMatch match : matches) {
+            assertTrue(match.getUser1().getId() < match.getUser2().getId());
+        }
+        for (User user : users) {
+            assertEquals(userCount - 1, pageThroughMatches(user).size());
+        }
+    }
+
+    @Test
+    void consistencyCheckCreatesMissedMatchesAndDropsLikesWithoutARow() {
+        User first = createUser();
+        User second = createUser();
+        User phantomTarget = createUser();
+        // Both likes written by another node, so this node's index never saw them
+        for (User[] pair : new User[][]{{first, second}, {second, first}}) {
+            jdbcTemplate.update("INSERT INTO match_actions (actor_id, target_id, action) VALUES (?, ?, 'LIKE')",
+                    pair[0].getId(), pair[1].getId());
+        }
+        likeIndex.add(first.getId(), phantomTarget.getId());
+
+        likeIndex.verify();
+        assertTrue(matchService.findMatchBetween(first, second).isPresent());
+        assertFalse(likeIndex.contains(second.getId(), first.getId()));
+        assertTrue(likeIndex.contains(first.getId(), phantomTarget.getId()));
+
+        likeIndex.verify();
+        assertFalse(likeIndex.contains(first.getId(), phantomTarget.getId()));
+        assertEquals(1, mutualMatchRepository.findAll().size());
+    }
+
+    @Test
+    void likesFromAnotherNodeCompleteMatchesOnTheNextRefresh() {
+        User local = createUser();
+        User remote = createUser();
+        matchService.recordAction(local, remote, ActionType.LIKE);
+        jdbcTemplate.update("INSERT INTO match_actions (actor_id, target_id, action) VALUES (?, ?, 'LIKE')",
+                remote.getId(), local.getId());
+
+        likeIndex.refresh();
+
+        assertTrue(matchService.findMatchBetween(local, remote).isPresent());
+        assertFalse(likeIndex.contains(local.getId(), remote.getId()));
+        assertFalse(likeIndex.contains(remote.getId(), local.getId()));
+    }
+
+    @Test
+    void matchedLikesLeaveTheIndex() {
+        User first = createUser();
+        User second = createUser();
+
+        matchService.recordAction(first, second, ActionType.LIKE);
+        assertTrue(likeIndex.contains(first.getId(), second.getId()));
+        assertTrue(matchService.recordAction(second, first, ActionType.LIKE));
+
+        assertFalse(likeIndex.contains(first.getId(), second.getId()));
+        assertFalse(likeIndex.contains(second.getId(), first.getId()));
+    }
+
+    private Set<Long> pageThroughMatches(User user) {
+        Set<Long> matchedUserIds = new HashSet<>();
+        Long cursor = null;
+        long previousMatchId = Long.MAX_VALUE;
+        do {
+            MatchPage page = matchService.getMatches(user, cursor, 4);
+            for (MatchSummary match : page.matches()) {
+                assertTrue(match.getMatchId() < previousMatchId);
+                assertTrue(matchedUserIds.add(match.getUserId()));
+                previousMatchId = match.getMatchId();
+            }
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return matchedUserIds;
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setDateOfBirth(LocalDate.of(1995, 1, 1));
+        user.setGender(Gender.FEMALE);
+        userService.save(user);
+        return user;
+    }
+}
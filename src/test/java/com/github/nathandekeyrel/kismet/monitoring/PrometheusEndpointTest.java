@@ -0,0 +1,83 @@
+package com.github.nathandekeyrel.kismet.monitoring;
+
+import com.github.nathandekeyrel.kismet.matching.ActionType;
+import com.github.nathandekeyrel.kismet.matching.MatchService;
+import com.github.nathandekeyrel.kismet.user.Gender;
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,prometheus",
+        "management.metrics.distribution.percentiles-histogram.hikaricp.connections.acquire=true",
+        "kismet.metrics.scrape-password=scrape-secret"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Test
+    void onlyHealthIsPublicAndTheScrapeNeedsTheMetricsUser() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(user("someone@example.com")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void scrapeExposesSwipeServicePoolAndHibernateMetrics() throws Exception {
+        User first = createUser("First");
+        User second = createUser("Second");
+        matchService.recordAction(first, second, ActionType.LIKE);
+        matchService.recordAction(second, first, ActionType.LIKE);
+        matchService.findPotentialMatch(first);
+
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("kismet_swipes_total{action=\"like\"")))
+                .andExpect(content().string(containsString("kismet_matches_total")))
+                .andExpect(content().string(containsString("kismet_deck_requests_total")))
+                .andExpect(content().string(containsString("kismet_service_seconds_bucket")))
+                .andExpect(content().string(containsString("method=\"recordAction\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")))
+                .andExpect(content().string(containsString("hibernate_statements_total")));
+    }
+
+    private User createUser(String firstName) {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName(firstName);
+        user.setLastName("Tester");
+        user.setDateOfBirth(LocalDate.of(1995, 1, 1));
+        user.setGender(Gender.MALE);
+        userService.save(user);
+        return user;
+    }
+}
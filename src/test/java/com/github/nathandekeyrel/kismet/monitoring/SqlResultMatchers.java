@@ -0,0 +1,46 @@
+package com.github.nathandekeyrel.kismet.monitoring;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class SqlResultMatchers {
+
+    private static final int REPEAT_THRESHOLD = 3;
+
+    private SqlResultMatchers() {
+    }
+
+    public static SqlResultMatchers sql() {
+        return new SqlResultMatchers();
+    }
+
+    public ResultMatcher statementsAtMost(int max) {
+        return result -> {
+            RequestStatements statements = statements(result);
+            assertTrue(statements.getStatements() <= max, describe(result) + " issued " +
+                    statements.getStatements() + " statements, expected at most " + max);
+        };
+    }
+
+    public ResultMatcher noRepeatedStatements() {
+        return result -> {
+            Map<String, Integer> repeated = statements(result).getRepeatedStatements(REPEAT_THRESHOLD);
+            assertTrue(repeated.isEmpty(), describe(result) + " repeated statements (probable N+1): " + repeated);
+        };
+    }
+
+    public static RequestStatements statements(MvcResult result) {
+        RequestStatements statements = (RequestStatements) result.getRequest().getAttribute(RequestStatements.ATTRIBUTE);
+        assertNotNull(statements, "No statements were tracked for " + describe(result));
+        return statements;
+    }
+
+    private static String describe(MvcResult result) {
+        return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+    }
+}
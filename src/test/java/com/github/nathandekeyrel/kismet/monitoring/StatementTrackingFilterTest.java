@@ -0,0 +1,55 @@
+package com.github.nathandekeyrel.kismet.monitoring;
+
+import com.github.nathandekeyrel.kismet.user.Gender;
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "kismet.sql.response-headers=true")
+@AutoConfigureMockMvc
+public class StatementTrackingFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void countsStatementsPerRequestIntoHeadersAndMetrics() throws Exception {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName("Counted");
+        user.setLastName("Tester");
+        user.setDateOfBirth(LocalDate.of(1995, 1, 1));
+        user.setGender(Gender.MALE);
+        userService.save(user);
+
+        mockMvc.perform(get("/matches").with(user(user.getEmail())))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Sql-Statements"))
+                .andExpect(header().string("X-Sql-Repeated", "0"))
+                .andExpect(result -> assertTrue(
+                        Integer.parseInt(result.getResponse().getHeader("X-Sql-Statements")) > 0));
+
+        assertTrue(meterRegistry.get("kismet.sql.statements").tag("uri", "/matches").summary().count() > 0);
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.nathandekeyrel.kismet.notification;
+
+import com.github.nathandekeyrel.kismet.friendship.FriendshipService;
+import com.github.nathandekeyrel.kismet.matching.ActionType;
+import com.github.nathandekeyrel.kismet.matching.MatchService;
+import com.github.nathandekeyrel.kismet.user.Gender;
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class NotificationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Test
+    void streamsNewMatchesAndFriendRequestsToTheSubscribedUser() throws Exception {
+        User subscriber = createUser("Subscriber");
+        User matched = createUser("Matched");
+        User requester = createUser("Requester");
+        MvcResult stream = mockMvc.perform(get("/api/notifications").with(user(subscriber.getEmail())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        matchService.recordAction(matched, subscriber, ActionType.LIKE);
+        matchService.recordAction(subscriber, matched, ActionType.LIKE);
+        assertEquals("sent", friendshipService.addFriend(requester, subscriber));
+
+        MockHttpServletResponse response = stream.getResponse();
+        awaitContent(response, "event:friend-request");
+        String events = response.getContentAsString();
+        assertTrue(events.contains("event:match\ndata:{\"type\":\"match\",\"userId\":" + matched.getId() + "}"),
+                events);
+        assertTrue(events.contains("\"userId\":" + requester.getId()), events);
+    }
+
+    @Test
+    void completingTheStreamUnsubscribes() throws Exception {
+        User subscriber = createUser("Subscriber");
+        int before = notificationHub.getSubscriberCount();
+        MvcResult stream = mockMvc.perform(get("/api/notifications").with(user(subscriber.getEmail())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(before + 1, notificationHub.getSubscriberCount());
+
+        stream.getRequest().getAsyncContext().complete();
+
+        assertEquals(before, notificationHub.getSubscriberCount());
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!response.getContentAsString().contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private User createUser(String firstName) {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName(firstName);
+        user.setLastName("Tester");
+        user.setDateOfBirth(LocalDate.of(1995, 1, 1));
+        user.setGender(Gender.MALE);
+        userService.save(user);
+        return user;
+    }
+}
@@ -1,4 +1,94 @@
 package com.github.nathandekeyrel.kismet.profile;
 
+import com.github.nathandekeyrel.kismet.user.Gender;
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static com.github.nathandekeyrel.kismet.monitoring.SqlResultMatchers.sql;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
 public class ProfileControllerTest {
-}
\ No newline at end of file
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Test
+    void unchangedProfileRevalidatesWithNotModified() throws Exception {
+        User owner = createUserWithProfile();
+
+        String etag = mockMvc.perform(get("/profile").with(user(owner.getEmail())))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(sql().statementsAtMost(3))
+                .andExpect(content().string(containsString("You haven't answered any profile prompts yet.")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/profile").header(HttpHeaders.IF_NONE_MATCH, etag).with(user(owner.getEmail())))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void editingTheProfileChangesTheEtag() throws Exception {
+        User owner = createUserWithProfile();
+        String etag = mockMvc.perform(get("/profile").with(user(owner.getEmail())))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/profile/edit")
+                        .param("bio", "Mostly outdoors")
+                        .param("answers[PERFECT_DAY]", "Sunrise hike")
+                        .with(user(owner.getEmail()))
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        String updatedEtag = mockMvc.perform(get("/profile")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .with(user(owner.getEmail())))
+                .andExpect(status().isOk())
+                .andExpect(sql().noRepeatedStatements())
+                .andExpect(content().string(containsString("Mostly outdoors")))
+                .andExpect(content().string(containsString("Sunrise hike")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, updatedEtag);
+    }
+
+    private User createUserWithProfile() {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName("Owner");
+        user.setLastName("Tester");
+        user.setDateOfBirth(LocalDate.of(1995, 1, 1));
+        user.setGender(Gender.FEMALE);
+        userService.save(user);
+        Profile profile = new Profile();
+        profile.setUser(user);
+        profileService.saveProfile(profile);
+        return user;
+    }
+}
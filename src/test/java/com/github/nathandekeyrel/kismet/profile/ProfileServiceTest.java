@@ -1,4 +1,154 @@
 package com.github.nathandekeyrel.kismet.profile;
 
+import com.github.nathandekeyrel.kismet.matching.ProfileFeatureIndex;
+import com.github.nathandekeyrel.kismet.user.Gender;
+import com.github.nathandekeyrel.kismet.user.User;
+import com.github.nathandekeyrel.kismet.user.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"kismet.l2-cache.enabled=true", "kismet.deck.ranker=compatibility"})
 public class ProfileServiceTest {
-}
\ No newline at end of file
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProfileFeatureIndex profileFeatureIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void repeatedProfileReadsAreServedFromTheSecondLevelCache() {
+        User user = createUser();
+        Profile profile = new Profile();
+        profile.setUser(user);
+        profileService.saveProfile(profile);
+        profileService.updateProfile(profile, "Mostly outdoors", Map.of(PromptType.PERFECT_DAY, "Sunrise hike"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        readProfile(user);
+        long statements = statistics.getPrepareStatementCount();
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        for (int i = 0; i < 10; i++) {
+            readProfile(user);
+        }
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > hits);
+    }
+
+    @Test
+    void updatingAProfileInvalidatesTheCachedCopy() {
+        User user = createUser();
+        Profile profile = new Profile();
+        profile.setUser(user);
+        profileService.saveProfile(profile);
+        profileService.updateProfile(profile, "Before", Map.of(PromptType.PERFECT_DAY, "Sunrise hike"));
+        readProfile(user);
+
+        profileService.updateProfile(profileService.getByUser(user), "After",
+                Map.of(PromptType.PERFECT_DAY, "Late brunch"));
+
+        Profile updated = profileService.getByUser(user);
+        List<ProfileAnswer> answers = profileService.getAnswersByProfile(updated);
+        assertEquals("After", updated.getBio());
+        assertEquals(1, answers.size());
+        assertEquals("Late brunch", answers.getFirst().getAnswerText());
+    }
+
+    @Test
+    void updateProfileWritesOnlyChangedAnswersInBatchedStatements() {
+        User user = createUser();
+        Profile profile = new Profile();
+        profile.setUser(user);
+        profileService.saveProfile(profile);
+        Map<PromptType, String> answers = new EnumMap<>(PromptType.class);
+        for (PromptType promptType : PromptType.values()) {
+            answers.put(promptType, "Answer for " + promptType);
+        }
+        profileService.updateProfile(profile, "Bio", answers);
+
+        Map<PromptType, String> edited = new EnumMap<>(answers);
+        edited.put(PromptType.PERFECT_DAY, "Late brunch");
+        edited.put(PromptType.values()[PromptType.values().length - 1], " ");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statements = statistics.getPrepareStatementCount();
+        profileService.updateProfile(profileService.getByUser(user), "Bio", edited);
+        long updateStatements = statistics.getPrepareStatementCount() - statements;
+
+        Map<PromptType, String> saved = profileService.buildEditForm(profileService.getByUser(user)).getAnswers();
+        assertEquals(PromptType.values().length - 1, saved.size());
+        assertEquals("Late brunch", saved.get(PromptType.PERFECT_DAY));
+        assertTrue(updateStatements <= 5, "updateProfile issued " + updateStatements + " statements");
+
+        statements = statistics.getPrepareStatementCount();
+        profileService.updateProfile(profileService.getByUser(user), "Bio", edited);
+        assertTrue(statistics.getPrepareStatementCount() - statements <= 2);
+    }
+
+    @Test
+    void profileEditsFromAnotherNodeReachTheFeatureIndexOnRefresh() throws InterruptedException {
+        User user = createUser();
+        Profile profile = new Profile();
+        profile.setUser(user);
+        profileService.saveProfile(profile);
+        profileService.updateProfile(profile, "Mostly outdoors", Map.of(PromptType.PERFECT_DAY, "Sunrise hike"));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!profileFeatureIndex.isLoaded() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        int[] before = profileFeatureIndex.get(user.getId()).bio();
+
+        jdbcTemplate.update("UPDATE profiles SET bio = ?, updated_at = ? WHERE id = ?", "Board games and chess",
+                Timestamp.from(Instant.now().plusSeconds(1)), profile.getId());
+        profileFeatureIndex.refresh();
+
+        assertFalse(Arrays.equals(before, profileFeatureIndex.get(user.getId()).bio()));
+    }
+
+    private void readProfile(User user) {
+        Profile profile = profileService.getByUser(user);
+        profileService.getAnswersByProfile(profile);
+        profileService.buildEditForm(profile);
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName("Cached");
+        user.setLastName("Tester");
+        user.setDateOfBirth(LocalDate.of(1995, 1, 1));
+        user.setGender(Gender.FEMALE);
+        userService.save(user);
+        return user;
+    }
+}
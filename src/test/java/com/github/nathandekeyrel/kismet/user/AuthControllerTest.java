@@ -1,4 +1,68 @@
 package com.github.nathandekeyrel.kismet.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+@SpringBootTest
+@AutoConfigureMockMvc
 public class AuthControllerTest {
-}
\ No newline at end of file
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void registrationAndLoginHashOnTheBulkhead() throws Exception {
+        String email = UUID.randomUUID() + "@example.com";
+        long hashed = hashed();
+
+        mockMvc.perform(post("/register").with(csrf())
+                        .param("email", email)
+                        .param("password", "secret")
+                        .param("firstName", "Registered")
+                        .param("lastName", "Tester")
+                        .param("dateOfBirth", "1995-01-01")
+                        .param("gender", "FEMALE"))
+                .andExpect(redirectedUrl("/login"));
+        assertTrue(passwordEncoder.matches("secret", userService.getUser(email).getPassword()));
+        assertEquals(hashed + 1, hashed());
+
+        mockMvc.perform(formLogin("/login").user(email).password("wrong"))
+                .andExpect(unauthenticated())
+                .andExpect(redirectedUrl("/login?error"));
+        hashed = hashed();
+        mockMvc.perform(formLogin("/login").user(email).password("secret"))
+                .andExpect(authenticated())
+                .andExpect(redirectedUrl("/home"));
+
+        assertEquals(hashed + 1, hashed());
+    }
+
+    private long hashed() {
+        return meterRegistry.get("kismet.password.hashing.wait").timer().count();
+    }
+}
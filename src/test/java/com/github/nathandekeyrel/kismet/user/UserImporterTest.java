@@ -0,0 +1,107 @@
+package com.github.nathandekeyrel.kismet.user;
+
+import com.github.nathandekeyrel.kismet.profile.ProfileService;
+import com.github.nathandekeyrel.kismet.user.UserImporter.ImportReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"kismet.import.batch-size=2", "kismet.import.parallelism=2"})
+public class UserImporterTest {
+
+    @Autowired
+    private UserImporter userImporter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void importsJsonLinesWithProfilesAndSkipsDuplicatesAndInvalidRows() throws Exception {
+        String existing = email();
+        User registered = new User();
+        registered.setEmail(existing);
+        registered.setPassword("password");
+        registered.setFirstName("Already");
+        registered.setLastName("Here");
+        registered.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        registered.setGender(Gender.FEMALE);
+        userService.save(registered);
+
+        String first = email();
+        String second = email();
+        String hashed = email();
+        String preHashed = passwordEncoder.encode("migrated");
+        Path file = directory.resolve("users.jsonl");
+        Files.write(file, List.of(
+                user(first, "\"password\": \"secret\""),
+                user(existing, "\"password\": \"secret\""),
+                "{\"email\": \"broken@example.com\"}",
+                user(first, "\"password\": \"other\""),
+                user(second, "\"password\": \"secret\""),
+                user(hashed, "\"passwordHash\": \"" + preHashed + "\"")));
+
+        ImportReport report = userImporter.importFile(file);
+
+        assertEquals(3, report.imported());
+        assertEquals(2, report.duplicates());
+        assertEquals(1, report.invalid());
+        User imported = userService.getUser(first);
+        assertTrue(passwordEncoder.matches("secret", imported.getPassword()));
+        assertNotNull(profileService.getByUser(imported));
+        assertEquals(preHashed, userService.getUser(hashed).getPassword());
+        assertTrue(userService.searchByName("Imported", imported.getId(), 0).stream()
+                .anyMatch(user -> user.getEmail().equals(second)));
+        assertEquals("6", Files.readString(UserImporter.checkpointFor(file)));
+    }
+
+    @Test
+    void resumesCsvImportsAfterTheCheckpoint() throws Exception {
+        String skipped = email();
+        String resumed = email();
+        Path file = directory.resolve("users.csv");
+        Files.write(file, List.of(
+                "email,password,firstName,lastName,dateOfBirth,gender",
+                skipped + ",secret,Skipped,Row,1991-02-03,MALE",
+                resumed + ",\"se,cret\",\"Resumed \"\"Row\"\"\",Row,1991-02-03,FEMALE"));
+        Files.writeString(UserImporter.checkpointFor(file), "2");
+
+        ImportReport report = userImporter.importFile(file);
+
+        assertEquals(1, report.imported());
+        assertFalse(userService.existsByEmail(skipped));
+        User user = userService.getUser(resumed);
+        assertEquals("Resumed \"Row\"", user.getFirstName());
+        assertTrue(passwordEncoder.matches("se,cret", user.getPassword()));
+    }
+
+    private static String user(String email, String password) {
+        return "{\"email\": \"" + email + "\", " + password + ", \"firstName\": \"Imported\", " +
+               "\"lastName\": \"Person\", \"dateOfBirth\": \"1992-05-17\", \"gender\": \"MALE\"}";
+    }
+
+    private static String email() {
+        return UUID.randomUUID() + "@example.com";
+    }
+}
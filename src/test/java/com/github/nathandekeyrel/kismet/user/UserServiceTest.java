@@ -1,4 +1,138 @@
 package com.github.nathandekeyrel.kismet.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(properties = {"kismet.search.page-size=2", "kismet.users.cache.enabled=true"})
 public class UserServiceTest {
-}
\ No newline at end of file
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void searchRanksPrefixMatchesBeforeSubstringMatches() {
+        String marker = uniqueName();
+        User searcher = createUser("Searcher", marker);
+        User substring = createUser("Joanne", marker + "x");
+        User prefix = createUser("Annika", marker + "y");
+        createUser("Bob", marker + "z");
+
+        List<User> firstPage = userService.searchByName("ann", searcher.getId(), 0);
+        List<User> secondPage = userService.searchByName("ann", searcher.getId(), 1);
+
+        assertTrue(firstPage.size() <= 2);
+        assertEquals(prefix.getId(), firstPage.getFirst().getId());
+        assertTrue(firstPage.stream().noneMatch(user -> user.getId().equals(searcher.getId())));
+        assertTrue(firstPage.stream().anyMatch(user -> user.getId().equals(substring.getId()))
+                || secondPage.stream().anyMatch(user -> user.getId().equals(substring.getId())));
+    }
+
+    @Test
+    void searchFindsUsersByLastNameAndExcludesTheSearcher() {
+        String lastName = uniqueName();
+        User searcher = createUser("Dana", lastName);
+        User other = createUser("Eli", lastName);
+
+        List<User> results = userService.searchByName(lastName.toUpperCase(), searcher.getId(), 0);
+
+        assertEquals(List.of(other.getId()), results.stream().map(User::getId).toList());
+    }
+
+    @Test
+    void shortQueriesFallBackToTheDatabase() {
+        String lastName = "Q" + uniqueName();
+        User searcher = createUser("Fay", lastName);
+        createUser("Gus", lastName);
+
+        List<User> results = userService.searchByName("Gu", searcher.getId(), 0);
+
+        assertFalse(results.isEmpty());
+        assertTrue(results.stream().noneMatch(user -> user.getId().equals(searcher.getId())));
+    }
+
+    @Test
+    void usersRegisteredOnAnotherNodeAreFoundAfterTheIndexIsRebuilt() {
+        String lastName = "R" + uniqueName();
+        User searcher = createUser("Ida", lastName);
+        jdbcTemplate.update("INSERT INTO users (email, password, first_name, last_name, date_of_birth, gender) " +
+                        "VALUES (?, 'password', 'Jo', ?, DATE '1995-01-01', 'FEMALE')",
+                UUID.randomUUID() + "@example.com", lastName);
+
+        assertTrue(userService.searchByName(lastName, searcher.getId(), 0).isEmpty());
+        userSearchIndex.rebuild();
+
+        List<User> results = userService.searchByName(lastName, searcher.getId(), 0);
+        assertEquals(1, results.size());
+        assertEquals("Jo", results.getFirst().getFirstName());
+    }
+
+    @Test
+    void resolvedUsersAreCachedPerRequestAndAcrossRequestsUntilSaved() {
+        User user = createUser("Hal", uniqueName());
+
+        User loaded = userService.getUser(user.getEmail());
+        double requestHits = hits("request");
+        assertSame(loaded, userService.getUserById(loaded.getId()));
+        assertEquals(requestHits + 1, hits("request"));
+
+        RequestContextHolder.resetRequestAttributes();
+        double sharedHits = hits("shared");
+        User shared = userService.getUser(user.getEmail());
+        assertNotSame(loaded, shared);
+        assertEquals(loaded.getId(), shared.getId());
+        assertEquals("Hal", shared.getFirstName());
+        assertEquals(sharedHits + 1, hits("shared"));
+
+        loaded.setFirstName("Harold");
+        userService.save(loaded);
+        double misses = meterRegistry.get("kismet.users.cache.lookups").tag("result", "miss").counter().count();
+
+        assertEquals("Harold", userService.getUserById(loaded.getId()).getFirstName());
+        assertEquals(misses + 1, meterRegistry.get("kismet.users.cache.lookups").tag("result", "miss").counter().count());
+    }
+
+    private double hits(String tier) {
+        return meterRegistry.get("kismet.users.cache.lookups").tag("tier", tier).counter().count();
+    }
+
+    private String uniqueName() {
+        return "Zz" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+    }
+
+    private User createUser(String firstName, String lastName) {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setDateOfBirth(LocalDate.of(1995, 1, 1));
+        user.setGender(Gender.FEMALE);
+        userService.save(user);
+        return user;
+    }
+}